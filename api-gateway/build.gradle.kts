@@ -32,7 +32,9 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-oauth2-resource-server")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("io.micrometer:micrometer-java21")
     implementation("org.springframework.cloud:spring-cloud-starter-circuitbreaker-resilience4j")
+    implementation("com.github.ben-manes.caffeine:caffeine")
 
     // OpenAPI for documentation
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.6.0")
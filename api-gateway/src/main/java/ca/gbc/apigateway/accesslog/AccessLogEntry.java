@@ -0,0 +1,21 @@
+package ca.gbc.apigateway.accesslog;
+
+// Captured on the request thread without formatting; rendered by the access-log writer
+public record AccessLogEntry(long timestampMillis, String method, String path, String query, String route,
+                             int status, long durationNanos, String caller) {
+
+    String format() {
+        StringBuilder line = new StringBuilder(160)
+                .append("ts=").append(timestampMillis)
+                .append(" method=").append(method)
+                .append(" path=").append(path);
+        if (query != null) {
+            line.append(" query=").append(query);
+        }
+        return line.append(" route=").append(route)
+                .append(" status=").append(status)
+                .append(" duration_us=").append(durationNanos / 1_000)
+                .append(" caller=").append(caller == null ? "-" : caller)
+                .toString();
+    }
+}
@@ -0,0 +1,143 @@
+package ca.gbc.apigateway.accesslog;
+
+import ca.gbc.apigateway.limit.RateLimitFilter;
+import ca.gbc.apigateway.routes.RoutePaths;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records every request's latency in a per-route timer and writes a sampled access log. The
+ * request thread only captures the raw fields into the ring buffer; a single writer thread
+ * formats the lines and hands them to the {@code gateway.access} logger. Server errors are always
+ * logged, other requests with the configured sample rate. Runs outermost of the gateway filters,
+ * after Spring Security, so 429 and 503 rejections are logged with the caller that got them.
+ */
+@Component
+@Order(AccessLogFilter.ORDER)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = RateLimitFilter.ORDER - 10;
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("gateway.access");
+    private static final String OTHER_ROUTE = "other";
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final RoutePaths routes;
+    private final AccessLogRingBuffer buffer;
+    private final Counter failed;
+    private final Map<String, Timer[]> timers = new HashMap<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AccessLogFilter(MeterRegistry meterRegistry,
+                           @Value("${gateway.access-log.enabled:true}") boolean enabled,
+                           @Value("${gateway.access-log.sample-rate:0.01}") double sampleRate,
+                           @Value("${gateway.access-log.buffer-size:8192}") int bufferSize,
+                           RoutePaths routes) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.routes = routes;
+        this.buffer = new AccessLogRingBuffer(bufferSize);
+        for (String route : this.routes.routeIds()) {
+            timers.put(route, timers(meterRegistry, route));
+        }
+        timers.put(OTHER_ROUTE, timers(meterRegistry, OTHER_ROUTE));
+        Gauge.builder("gateway.access-log.dropped", buffer, AccessLogRingBuffer::dropped)
+                .description("Access-log entries dropped because the ring buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("gateway.access-log.pending", buffer, AccessLogRingBuffer::size)
+                .description("Access-log entries waiting for the writer thread")
+                .register(meterRegistry);
+        this.failed = Counter.builder("gateway.access-log.failed")
+                .description("Access-log entries the writer thread failed to format or log")
+                .register(meterRegistry);
+        this.writer = Thread.ofPlatform().name("access-log-writer").daemon().start(this::writeLoop);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            chain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            long duration = System.nanoTime() - start;
+            String route = routes.routeOf(request.getRequestURI());
+            if (route == null) {
+                route = OTHER_ROUTE;
+            }
+            timers.get(route)[Math.clamp(status / 100, 1, 5) - 1].record(duration, TimeUnit.NANOSECONDS);
+            if (status >= 500 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                Principal principal = request.getUserPrincipal();
+                buffer.offer(new AccessLogEntry(System.currentTimeMillis(), request.getMethod(), request.getRequestURI(),
+                        request.getQueryString(), route, status, duration, principal == null ? null : principal.getName()));
+            }
+        }
+    }
+
+    private void writeLoop() {
+        while (running || buffer.size() > 0) {
+            if (buffer.drain(this::write) == 0) {
+                LockSupport.parkNanos(Duration.ofMillis(10).toNanos());
+            }
+        }
+    }
+
+    // A failure is confined to its entry; letting it escape would end the only writer thread
+    private void write(AccessLogEntry entry) {
+        try {
+            ACCESS_LOG.info(entry.format());
+        } catch (RuntimeException e) {
+            failed.increment();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(Duration.ofSeconds(2));
+    }
+
+    // One timer per status class (1xx..5xx), so outcomes can be told apart without a tag lookup per request
+    private static Timer[] timers(MeterRegistry meterRegistry, String route) {
+        Timer[] byStatusClass = new Timer[5];
+        for (int statusClass = 1; statusClass <= 5; statusClass++) {
+            byStatusClass[statusClass - 1] = Timer.builder("gateway.route.latency")
+                    .description("Time the gateway spent on requests, per route and status class")
+                    .tags("route", route, "status", statusClass + "xx")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+        return byStatusClass;
+    }
+}
@@ -0,0 +1,65 @@
+package ca.gbc.apigateway.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring of access-log entries. Request threads claim a slot
+ * with a CAS on the tail and never block: when the ring is full the entry is dropped and counted.
+ * Only the writer thread calls {@link #drain}.
+ */
+final class AccessLogRingBuffer {
+
+    private final AtomicReferenceArray<AccessLogEntry> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    AccessLogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    boolean offer(AccessLogEntry entry) {
+        while (true) {
+            long claimed = tail.get();
+            if (claimed - head.get() >= slots.length()) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (tail.compareAndSet(claimed, claimed + 1)) {
+                slots.set((int) (claimed & mask), entry);
+                return true;
+            }
+        }
+    }
+
+    // Hands queued entries to the consumer in order; stops at a slot that is claimed but not yet written
+    int drain(Consumer<AccessLogEntry> consumer) {
+        int drained = 0;
+        long next = head.get();
+        while (next < tail.get()) {
+            int index = (int) (next & mask);
+            AccessLogEntry entry = slots.get(index);
+            if (entry == null) {
+                break;
+            }
+            slots.set(index, null);
+            head.set(++next);
+            consumer.accept(entry);
+            drained++;
+        }
+        return drained;
+    }
+
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,18 @@
+package ca.gbc.apigateway.cache;
+
+import java.time.Instant;
+
+// A stored 200 response; only the body and the headers needed to replay it are kept
+public record CachedResponse(
+        String route,
+        String contentType,
+        byte[] body,
+        String etag,
+        String cacheControl,
+        Instant expiresAt
+) {
+
+    public boolean isFresh(Instant now) {
+        return now.isBefore(expiresAt);
+    }
+}
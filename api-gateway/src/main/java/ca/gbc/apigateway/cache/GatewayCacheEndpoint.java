@@ -0,0 +1,33 @@
+package ca.gbc.apigateway.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/gatewaycache for the cache size, DELETE /actuator/gatewaycache/{route} to drop one route's entries
+@Component
+@Endpoint(id = "gatewaycache")
+@RequiredArgsConstructor
+public class GatewayCacheEndpoint {
+
+    private final ResponseCache responseCache;
+    private final ResponseCacheFilter responseCacheFilter;
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        return Map.of(
+                "entries", responseCache.size(),
+                "bytes", responseCache.sizeInBytes(),
+                "routes", responseCacheFilter.routeIds());
+    }
+
+    @DeleteOperation
+    public Map<String, Object> invalidate(@Selector String route) {
+        return Map.of("route", route, "invalidated", responseCache.invalidate(route));
+    }
+}
@@ -0,0 +1,135 @@
+package ca.gbc.apigateway.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded LRU store for gateway responses. Entries are evicted least recently used first
+ * once the bodies held exceed the configured number of bytes; expired entries are dropped when
+ * they are next looked up. Each route has a generation that every invalidation bumps, so a
+ * response fetched before a write can be kept out of the cache when it arrives after it.
+ */
+@Component
+public class ResponseCache {
+
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private long bytes;
+
+    public ResponseCache(@Value("${gateway.cache.max-size:64MB}") DataSize maxSize, MeterRegistry meterRegistry) {
+        this.maxBytes = maxSize.toBytes();
+        Gauge.builder("gateway.cache.entries", this, ResponseCache::size)
+                .description("Responses held in the gateway cache")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.size", this, ResponseCache::sizeInBytes)
+                .description("Body bytes held in the gateway cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Optional<CachedResponse> get(String key) {
+        lock.lock();
+        try {
+            CachedResponse cached = entries.get(key);
+            if (cached != null && !cached.isFresh(Instant.now())) {
+                remove(key);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(cached);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long generation(String route) {
+        return generations.getOrDefault(route, 0L);
+    }
+
+    public void put(String key, CachedResponse response) {
+        put(key, response, generation(response.route()));
+    }
+
+    // Stores the response only if its route has not been invalidated since the given generation
+    public boolean put(String key, CachedResponse response, long generation) {
+        if (response.body().length > maxBytes) {
+            return false;
+        }
+        lock.lock();
+        try {
+            if (generation(response.route()) != generation) {
+                return false;
+            }
+            remove(key);
+            entries.put(key, response);
+            bytes += response.body().length;
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().body().length;
+                eldest.remove();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Drops every entry of the route; returns how many were dropped
+    public int invalidate(String route) {
+        lock.lock();
+        try {
+            generations.merge(route, 1L, Long::sum);
+            int removed = 0;
+            Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                CachedResponse cached = iterator.next().getValue();
+                if (cached.route().equals(route)) {
+                    bytes -= cached.body().length;
+                    iterator.remove();
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.body().length;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package ca.gbc.apigateway.cache;
+
+import ca.gbc.apigateway.routes.RoutePaths;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Caches 200 responses to GET requests on the configured routes, so catalog reads that barely
+ * change are answered by the gateway. Every response on those routes carries an ETag and a
+ * matching If-None-Match gets 304 Not Modified. Cache-Control is honoured both ways: a backend
+ * max-age sets the lifetime, no-store/private/no-cache keep a response out of the cache, and a
+ * client no-cache/no-store skips the lookup. A 200 without a backend Cache-Control gets
+ * "private, no-cache", so clients keep the body and revalidate it, rather than Spring
+ * Security's no-store default. A successful write through a route drops that route's entries,
+ * and a miss that was already in flight when the write landed is not stored. Runs after Spring
+ * Security, so unauthenticated requests never reach it, and before request coalescing, so only
+ * misses are coalesced.
+ */
+@Slf4j
+@Component
+@Order(ResponseCacheFilter.ORDER)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 20;
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final String CLIENT_CACHE_CONTROL = "private, no-cache";
+
+    private final ResponseCache cache;
+    private final boolean enabled;
+    private final Duration defaultTtl;
+    private final long maxEntryBytes;
+    private final RoutePaths routes;
+    private final Map<String, RouteStats> stats = new LinkedHashMap<>();
+
+    public ResponseCacheFilter(ResponseCache cache,
+                               MeterRegistry meterRegistry,
+                               @Value("${gateway.cache.enabled:true}") boolean enabled,
+                               @Value("${gateway.cache.routes:room-service:/api/room,user-service:/api/users}") List<String> routes,
+                               @Value("${gateway.cache.default-ttl:30s}") Duration defaultTtl,
+                               @Value("${gateway.cache.max-entry-size:1MB}") DataSize maxEntrySize) {
+        this.cache = cache;
+        this.enabled = enabled;
+        this.defaultTtl = defaultTtl;
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.routes = RoutePaths.of(routes);
+        for (String route : this.routes.routeIds()) {
+            this.stats.put(route, new RouteStats(route, meterRegistry));
+        }
+    }
+
+    public Set<String> routeIds() {
+        return stats.keySet();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routeOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String route = routeOf(request);
+        RouteStats routeStats = stats.get(route);
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+
+        if (!HttpMethod.GET.equals(method)) {
+            chain.doFilter(request, response);
+            boolean safe = HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method);
+            if (!safe && response.getStatus() < 300) {
+                int dropped = cache.invalidate(route);
+                log.debug("{} {} changed route {}, dropped {} cached responses", method, request.getRequestURI(), route, dropped);
+            }
+            return;
+        }
+
+        String key = request.getQueryString() == null ? request.getRequestURI() : request.getRequestURI() + "?" + request.getQueryString();
+        Set<String> requestDirectives = directives(request.getHeader(HttpHeaders.CACHE_CONTROL));
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        if (!requestDirectives.contains("no-cache") && !requestDirectives.contains("no-store")) {
+            Optional<CachedResponse> cached = cache.get(key);
+            if (cached.isPresent()) {
+                routeStats.hit(cached.get().body().length);
+                writeCached(cached.get(), ifNoneMatch, response, routeStats);
+                return;
+            }
+        }
+        routeStats.miss();
+
+        long generation = cache.generation(route);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = wrapper.getContentAsByteArray();
+        String etag = Optional.ofNullable(wrapper.getHeader(HttpHeaders.ETAG)).orElseGet(() -> etagOf(body));
+        wrapper.setHeader(HttpHeaders.ETAG, etag);
+        wrapper.setHeader(CACHE_STATUS_HEADER, "MISS");
+
+        String backendCacheControl = wrapper.getHeader(HttpHeaders.CACHE_CONTROL);
+        String cacheControl = backendCacheControl == null ? CLIENT_CACHE_CONTROL : backendCacheControl;
+        wrapper.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+
+        Set<String> responseDirectives = directives(backendCacheControl);
+        Duration ttl = maxAge(responseDirectives).orElse(defaultTtl);
+        boolean storable = !requestDirectives.contains("no-store")
+                && !responseDirectives.contains("no-store")
+                && !responseDirectives.contains("private")
+                && !responseDirectives.contains("no-cache")
+                && ttl.isPositive()
+                && body.length <= maxEntryBytes;
+        if (storable) {
+            CachedResponse cached = new CachedResponse(route, wrapper.getContentType(), body, etag, cacheControl, Instant.now().plus(ttl));
+            if (!cache.put(key, cached, generation)) {
+                log.debug("Route {} changed while {} was fetched, not caching it", route, key);
+            }
+        }
+
+        if (etagMatches(ifNoneMatch, etag)) {
+            // The client already has this body
+            routeStats.notModified(body.length);
+            wrapper.resetBuffer();
+            wrapper.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void writeCached(CachedResponse cached, String ifNoneMatch, HttpServletResponse response, RouteStats routeStats)
+            throws IOException {
+        response.setHeader(HttpHeaders.ETAG, cached.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cached.cacheControl());
+        response.setHeader(CACHE_STATUS_HEADER, "HIT");
+        if (etagMatches(ifNoneMatch, cached.etag())) {
+            routeStats.notModified(cached.body().length);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (cached.contentType() != null) {
+            response.setContentType(cached.contentType());
+        }
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private String routeOf(HttpServletRequest request) {
+        return routes.routeOf(request.getRequestURI());
+    }
+
+    private static String etagOf(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    // If-None-Match may list several tags, weak or strong, or be "*"
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String strongEtag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(strongEtag));
+    }
+
+    private static Set<String> directives(String cacheControl) {
+        if (cacheControl == null) {
+            return Set.of();
+        }
+        return Arrays.stream(cacheControl.split(","))
+                .map(directive -> directive.trim().toLowerCase(Locale.ROOT))
+                .filter(directive -> !directive.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private static Optional<Duration> maxAge(Set<String> directives) {
+        for (String directive : directives) {
+            if (directive.startsWith("s-maxage=") || directive.startsWith("max-age=")) {
+                try {
+                    return Optional.of(Duration.ofSeconds(Long.parseLong(directive.substring(directive.indexOf('=') + 1))));
+                } catch (NumberFormatException e) {
+                    return Optional.of(Duration.ZERO);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Hits, misses and bytes the cache kept off the backends and off the wire, per route
+    private static final class RouteStats {
+
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong lookups = new AtomicLong();
+        private final Counter hitCounter;
+        private final Counter missCounter;
+        private final Counter backendBytesSaved;
+        private final Counter clientBytesSaved;
+
+        RouteStats(String route, MeterRegistry meterRegistry) {
+            this.hitCounter = Counter.builder("gateway.cache.requests")
+                    .description("GET requests on cached routes, by whether the gateway cache answered them")
+                    .tags("route", route, "result", "hit")
+                    .register(meterRegistry);
+            this.missCounter = Counter.builder("gateway.cache.requests")
+                    .description("GET requests on cached routes, by whether the gateway cache answered them")
+                    .tags("route", route, "result", "miss")
+                    .register(meterRegistry);
+            this.backendBytesSaved = Counter.builder("gateway.cache.bytes.saved")
+                    .description("Response bytes the gateway did not have to fetch or send")
+                    .baseUnit("bytes")
+                    .tags("route", route, "saved", "backend")
+                    .register(meterRegistry);
+            this.clientBytesSaved = Counter.builder("gateway.cache.bytes.saved")
+                    .description("Response bytes the gateway did not have to fetch or send")
+                    .baseUnit("bytes")
+                    .tags("route", route, "saved", "client")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.cache.hit.ratio", this, RouteStats::hitRatio)
+                    .description("Share of GET requests on the route answered from the gateway cache")
+                    .tag("route", route)
+                    .register(meterRegistry);
+        }
+
+        void hit(int bodyBytes) {
+            hits.incrementAndGet();
+            lookups.incrementAndGet();
+            hitCounter.increment();
+            backendBytesSaved.increment(bodyBytes);
+        }
+
+        void miss() {
+            lookups.incrementAndGet();
+            missCounter.increment();
+        }
+
+        void notModified(int bodyBytes) {
+            clientBytesSaved.increment(bodyBytes);
+        }
+
+        double hitRatio() {
+            long total = lookups.get();
+            return total == 0 ? 0.0 : (double) hits.get() / total;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package ca.gbc.apigateway.coalesce;
+
+import ca.gbc.apigateway.cache.ResponseCacheFilter;
+import ca.gbc.apigateway.routes.RoutePaths;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses identical GET requests that arrive while one is already being proxied into that one
+ * upstream call. The first request of a key (the leader) goes through to the backend with its
+ * response buffered; requests for the same key arriving meanwhile (followers) wait for it and are
+ * answered with a copy. A follower that waits longer than the configured limit, or whose leader
+ * failed, makes its own call. Only routes listed in gateway.coalesce.routes take part.
+ */
+@Slf4j
+@Component
+@Order(RequestCoalescingFilter.ORDER)
+public class RequestCoalescingFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = ResponseCacheFilter.ORDER + 10;
+
+    // Not replayed to followers: they describe the leader's connection or session, not the resource
+    private static final Set<String> UNSHARED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT), HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT), HttpHeaders.SET_COOKIE.toLowerCase(Locale.ROOT));
+
+    private final boolean enabled;
+    private final boolean perUser;
+    private final Duration maxWait;
+    private final RoutePaths routes;
+    private final Map<String, RouteStats> stats = new LinkedHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry,
+                                   @Value("${gateway.coalesce.enabled:true}") boolean enabled,
+                                   @Value("${gateway.coalesce.routes:event-service:/api/events,room-service:/api/room}") List<String> routes,
+                                   @Value("${gateway.coalesce.per-user:false}") boolean perUser,
+                                   @Value("${gateway.coalesce.max-wait:5s}") Duration maxWait) {
+        this.enabled = enabled;
+        this.perUser = perUser;
+        this.maxWait = maxWait;
+        this.routes = RoutePaths.of(routes);
+        for (String route : this.routes.routeIds()) {
+            this.stats.put(route, new RouteStats(route, meterRegistry));
+        }
+        Gauge.builder("gateway.coalesce.in-flight", inFlight, Map::size)
+                .description("Upstream calls currently shared by coalesced requests")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod()) || routes.routeOf(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteStats routeStats = stats.get(routes.routeOf(request.getRequestURI()));
+        String key = keyOf(request);
+        CompletableFuture<SharedResponse> call = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> leader = inFlight.putIfAbsent(key, call);
+
+        if (leader == null) {
+            routeStats.leader();
+            lead(key, call, request, response, chain);
+            return;
+        }
+
+        routeStats.follower();
+        SharedResponse shared;
+        try {
+            shared = leader.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.debug("Coalesced request for {} fell back to its own call: {}", key, e.toString());
+            routeStats.fallback();
+            chain.doFilter(request, response);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting for coalesced request " + key, e);
+        }
+        shared.writeTo(response);
+    }
+
+    private void lead(String key, CompletableFuture<SharedResponse> call, HttpServletRequest request,
+                      HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            call.complete(SharedResponse.of(wrapper));
+        } catch (IOException | ServletException | RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Completed before removal, so a request arriving in between still gets the result
+            inFlight.remove(key, call);
+            if (!call.isDone()) {
+                call.completeExceptionally(new IllegalStateException("Coalesced request " + key + " did not complete"));
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private String keyOf(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        if (request.getQueryString() != null) {
+            key.append('?').append(request.getQueryString());
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null) {
+            key.append(" accept=").append(accept);
+        }
+        if (perUser) {
+            Principal principal = request.getUserPrincipal();
+            key.append(" user=").append(principal == null ? "" : principal.getName());
+        }
+        return key.toString();
+    }
+
+    private record SharedResponse(int status, String contentType, List<Map.Entry<String, String>> headers, byte[] body) {
+
+        static SharedResponse of(ContentCachingResponseWrapper wrapper) {
+            List<Map.Entry<String, String>> headers = new ArrayList<>();
+            for (String name : wrapper.getHeaderNames()) {
+                if (!UNSHARED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    for (String value : wrapper.getHeaders(name)) {
+                        headers.add(Map.entry(name, value));
+                    }
+                }
+            }
+            return new SharedResponse(wrapper.getStatus(), wrapper.getContentType(), headers, wrapper.getContentAsByteArray());
+        }
+
+        void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            for (Map.Entry<String, String> header : headers) {
+                response.addHeader(header.getKey(), header.getValue());
+            }
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    // Leaders are upstream calls made, followers are requests that shared one
+    private static final class RouteStats {
+
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong followers = new AtomicLong();
+        private final Counter leaderCounter;
+        private final Counter followerCounter;
+        private final Counter fallbackCounter;
+
+        RouteStats(String route, MeterRegistry meterRegistry) {
+            this.leaderCounter = Counter.builder("gateway.coalesce.requests")
+                    .description("GET requests on coalescing routes, by whether they made the upstream call or shared one")
+                    .tags("route", route, "role", "leader")
+                    .register(meterRegistry);
+            this.followerCounter = Counter.builder("gateway.coalesce.requests")
+                    .description("GET requests on coalescing routes, by whether they made the upstream call or shared one")
+                    .tags("route", route, "role", "follower")
+                    .register(meterRegistry);
+            this.fallbackCounter = Counter.builder("gateway.coalesce.fallbacks")
+                    .description("Followers that made their own call after their leader timed out or failed")
+                    .tag("route", route)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.coalesce.ratio", this, RouteStats::ratio)
+                    .description("Share of GET requests on the route answered by another request's upstream call")
+                    .tag("route", route)
+                    .register(meterRegistry);
+        }
+
+        void leader() {
+            requests.incrementAndGet();
+            leaderCounter.increment();
+        }
+
+        void follower() {
+            requests.incrementAndGet();
+            followers.incrementAndGet();
+            followerCounter.increment();
+        }
+
+        void fallback() {
+            fallbackCounter.increment();
+        }
+
+        double ratio() {
+            long total = requests.get();
+            return total == 0 ? 0.0 : (double) followers.get() / total;
+        }
+    }
+}
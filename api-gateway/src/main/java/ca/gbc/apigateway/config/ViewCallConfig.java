@@ -0,0 +1,17 @@
+package ca.gbc.apigateway.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@Configuration
+public class ViewCallConfig {
+
+    // Aggregated views fan out blocking RestClient calls, so each one gets its own virtual thread
+    @Bean
+    public SimpleAsyncTaskExecutor viewCallExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("view-call-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
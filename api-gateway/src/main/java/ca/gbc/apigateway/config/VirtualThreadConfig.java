@@ -0,0 +1,18 @@
+package ca.gbc.apigateway.config;
+
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Every proxied call blocks a virtual thread; jvm.threads.virtual.pinned shows those that pin a carrier
+    @Bean
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
@@ -0,0 +1,67 @@
+package ca.gbc.apigateway.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive limit on concurrent requests to one backend, adjusted by additive increase and
+ * multiplicative decrease. A call that fails or is slower than the latency threshold shrinks the
+ * limit by the backoff ratio; a successful call made while the limit was at least half used grows
+ * it by 1/limit, so about one per limit's worth of calls. Lock-free: the limit is a double held in
+ * an AtomicLong and both counters are updated by CAS.
+ */
+public final class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max and backoff ratio must be in (0, 1)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(Math.clamp(initialLimit, minLimit, maxLimit)));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Called once for every successful tryAcquire, with how the call went
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        boolean overloaded = failed || latencyNanos > latencyThresholdNanos;
+        limitBits.updateAndGet(bits -> {
+            double limit = Double.longBitsToDouble(bits);
+            if (overloaded) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            return Double.doubleToLongBits(limit);
+        });
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,119 @@
+package ca.gbc.apigateway.limit;
+
+import ca.gbc.apigateway.coalesce.RequestCoalescingFilter;
+import ca.gbc.apigateway.routes.RoutePaths;
+import ca.gbc.apigateway.routes.Routes;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caps concurrent requests forwarded to each backend with an {@link AimdConcurrencyLimiter}, so
+ * the gateway sheds load with 503 as soon as a backend slows down or starts failing instead of
+ * queueing until its latency collapses. Innermost of the gateway filters, so the latency it
+ * measures is the backend's and cache hits or coalesced followers never take a slot. Only the
+ * backend's own 5xx responses, timeouts and connection failures count as failures; the
+ * fallback 503 answered while the circuit breaker is open never reached the backend.
+ */
+@Component
+@Order(ConcurrencyLimitFilter.ORDER)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = RequestCoalescingFilter.ORDER + 10;
+
+    private final boolean enabled;
+    private final RoutePaths routes;
+    private final Map<String, AimdConcurrencyLimiter> limiters = new HashMap<>();
+    private final Map<String, Counter> rejections = new HashMap<>();
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${gateway.concurrency.enabled:true}") boolean enabled,
+                                  RoutePaths routes,
+                                  @Value("${gateway.concurrency.initial-limit:100}") int initialLimit,
+                                  @Value("${gateway.concurrency.min-limit:10}") int minLimit,
+                                  @Value("${gateway.concurrency.max-limit:1000}") int maxLimit,
+                                  @Value("${gateway.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${gateway.concurrency.latency-threshold:500ms}") Duration latencyThreshold) {
+        this.enabled = enabled;
+        this.routes = routes;
+        for (String route : this.routes.routeIds()) {
+            AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold.toNanos());
+            limiters.put(route, limiter);
+            rejections.put(route, Counter.builder("gateway.concurrency.rejected")
+                    .description("Requests shed with 503 because the backend's concurrency limit was reached")
+                    .tag("route", route)
+                    .register(meterRegistry));
+            Gauge.builder("gateway.concurrency.limit", limiter, AimdConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit for the backend")
+                    .tag("route", route)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.in-flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                    .description("Requests currently forwarded to the backend")
+                    .tag("route", route)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routes.routeOf(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String route = routes.routeOf(request.getRequestURI());
+        AimdConcurrencyLimiter limiter = limiters.get(route);
+        if (!limiter.tryAcquire()) {
+            rejections.get(route).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("text/plain");
+            response.getWriter().write("Service is Temporarily Unavailable, please try again later.");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = backendFailed(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    // The circuit breaker filter leaves the reason for a fallback on the request. A fallback
+    // without one is the gateway's own 503 for a path no route forwards, which never reached the backend.
+    private static boolean backendFailed(HttpServletRequest request, HttpServletResponse response) {
+        Object fallbackCause = request.getAttribute(MvcUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        if (fallbackCause instanceof Throwable cause) {
+            for (Throwable t = cause; t != null; t = t.getCause()) {
+                if (t instanceof CallNotPermittedException) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (request.getAttribute(Routes.FALLBACK_ATTRIBUTE) != null) {
+            return false;
+        }
+        return response.getStatus() >= 500;
+    }
+}
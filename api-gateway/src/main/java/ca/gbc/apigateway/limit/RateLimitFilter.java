@@ -0,0 +1,122 @@
+package ca.gbc.apigateway.limit;
+
+import ca.gbc.apigateway.cache.ResponseCacheFilter;
+import ca.gbc.apigateway.routes.RoutePaths;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiting per route and per caller on each route, keyed on the JWT subject
+ * (the remote address for anonymous requests). The caller's bucket is checked first, so one busy
+ * caller cannot drain the route's bucket for everyone else, and its token is handed back when the
+ * route's bucket then rejects the request. Caller buckets expire once idle long enough to have
+ * refilled, and at most max-tracked-callers are kept. Rejected requests get 429 with a
+ * Retry-After. Runs after Spring Security, which has resolved the principal by then, and before
+ * the response cache, so cached reads count too.
+ */
+@Component
+@Order(RateLimitFilter.ORDER)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = ResponseCacheFilter.ORDER - 10;
+
+    private final boolean enabled;
+    private final RoutePaths routes;
+    private final double userRate;
+    private final int userBurst;
+    private final Map<String, TokenBucket> routeBuckets = new HashMap<>();
+    private final Map<String, Counter> routeRejections = new HashMap<>();
+    private final Map<String, Counter> callerRejections = new HashMap<>();
+    private final Cache<String, TokenBucket> callerBuckets;
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           @Value("${gateway.ratelimit.enabled:true}") boolean enabled,
+                           RoutePaths routes,
+                           @Value("${gateway.ratelimit.route-rate:200}") double routeRate,
+                           @Value("${gateway.ratelimit.route-burst:400}") int routeBurst,
+                           @Value("${gateway.ratelimit.user-rate:20}") double userRate,
+                           @Value("${gateway.ratelimit.user-burst:40}") int userBurst,
+                           @Value("${gateway.ratelimit.max-tracked-callers:10000}") int maxTrackedCallers) {
+        this.enabled = enabled;
+        this.routes = routes;
+        this.userRate = userRate;
+        this.userBurst = userBurst;
+        // An empty bucket is full again after burst / rate seconds, and a full bucket is no different from a new one
+        this.callerBuckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedCallers)
+                .expireAfterAccess(Duration.ofNanos((long) Math.ceil(userBurst / userRate * 1_000_000_000L)))
+                .build();
+        for (String route : this.routes.routeIds()) {
+            routeBuckets.put(route, new TokenBucket(routeRate, routeBurst));
+            routeRejections.put(route, rejections(meterRegistry, route, "route"));
+            callerRejections.put(route, rejections(meterRegistry, route, "user"));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routes.routeOf(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String route = routes.routeOf(request.getRequestURI());
+        long now = System.nanoTime();
+
+        TokenBucket callerBucket = callerBuckets.get(route + " " + callerOf(request), key -> new TokenBucket(userRate, userBurst));
+        long callerWait = callerBucket.tryAcquire(now);
+        if (callerWait > 0) {
+            callerRejections.get(route).increment();
+            reject(response, callerWait);
+            return;
+        }
+        long routeWait = routeBuckets.get(route).tryAcquire(now);
+        if (routeWait > 0) {
+            // The request was not let through, so it does not count against the caller
+            callerBucket.refund();
+            routeRejections.get(route).increment();
+            reject(response, routeWait);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String callerOf(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "sub:" + principal.getName() : "addr:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+        response.setContentType("text/plain");
+        response.getWriter().write("Too many requests, please try again later.");
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String route, String scope) {
+        return Counter.builder("gateway.ratelimit.rejected")
+                .description("Requests rejected with 429, by whether the caller's or the route's bucket was empty")
+                .tags("route", route, "scope", scope)
+                .register(meterRegistry);
+    }
+}
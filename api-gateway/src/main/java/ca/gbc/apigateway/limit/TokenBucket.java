@@ -0,0 +1,43 @@
+package ca.gbc.apigateway.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as the generic cell rate algorithm: instead of a token count it
+ * stores the theoretical arrival time of the next request, so taking a token is a single CAS.
+ * Allows {@code burst} requests at once and {@code ratePerSecond} sustained.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate must be positive and burst at least 1");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until one will be available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            long allowedAt = next - burstToleranceNanos;
+            if (allowedAt > nowNanos) {
+                return allowedAt - nowNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Returns a token taken by tryAcquire for a request that was then not let through
+    public void refund() {
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+    }
+}
@@ -0,0 +1,47 @@
+package ca.gbc.apigateway.routes;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps request paths to route ids for the gateway's servlet filters, configured as a list of
+ * {@code <route id>:<path prefix>} entries. A path belongs to a route when it equals the prefix
+ * or continues it with a {@code /}.
+ */
+public final class RoutePaths {
+
+    // Path prefix -> route id
+    private final Map<String, String> routes = new LinkedHashMap<>();
+
+    private RoutePaths() {
+    }
+
+    public static RoutePaths of(List<String> entries) {
+        RoutePaths paths = new RoutePaths();
+        for (String entry : entries) {
+            String[] idAndPath = entry.split(":", 2);
+            if (idAndPath.length != 2) {
+                throw new IllegalArgumentException("Route entry must be <route id>:<path prefix>, got " + entry);
+            }
+            paths.routes.put(idAndPath[1].trim(), idAndPath[0].trim());
+        }
+        return paths;
+    }
+
+    public String routeOf(String path) {
+        for (Map.Entry<String, String> route : routes.entrySet()) {
+            if (path.equals(route.getKey()) || path.startsWith(route.getKey() + "/")) {
+                return route.getValue();
+            }
+        }
+        return null;
+    }
+
+    public Set<String> routeIds() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(routes.values()));
+    }
+}
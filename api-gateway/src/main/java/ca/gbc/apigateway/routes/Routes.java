@@ -1,4 +1,5 @@
 package ca.gbc.apigateway.routes;
+import ca.gbc.apigateway.views.EventViewHandler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.server.mvc.filter.CircuitBreakerFilterFunctions;
@@ -12,6 +13,7 @@ import org.springframework.web.servlet.function.RouterFunction;
 import org.springframework.web.servlet.function.ServerResponse;
 
 import java.net.URI;
+import java.util.List;
 
 import static org.springframework.cloud.gateway.server.mvc.filter.FilterFunctions.setPath;
 
@@ -19,6 +21,9 @@ import static org.springframework.cloud.gateway.server.mvc.filter.FilterFunction
 @Configuration
 public class Routes {
 
+    // Set on requests the gateway answered itself from the fallback route, with no backend response
+    public static final String FALLBACK_ATTRIBUTE = Routes.class.getName() + ".fallback";
+
     @Value("${services.user.url}")
     private String userServiceUrl;
 
@@ -41,13 +46,7 @@ public class Routes {
         log.info("Initializing user service route with URL: {}", userServiceUrl );
 
         return GatewayRouterFunctions.route("user-service")
-                .route(RequestPredicates.path("/api/users"), request -> {
-                    log.info("Received request for user service: {}", request.uri());
-                    ServerResponse response = HandlerFunctions.http(userServiceUrl).handle(request);
-                    log.info("Response status: {}", response.statusCode());
-                    return response;
-
-                })
+                .route(RequestPredicates.path("/api/users"), HandlerFunctions.http(userServiceUrl))
                 .filter(CircuitBreakerFilterFunctions
                         .circuitBreaker("userServiceCircuitBreaker", URI.create("forward:/fallbackRoute")) )
                 .build();
@@ -58,13 +57,7 @@ public class Routes {
         log.info("Initializing room service route with URL: {}", roomServiceUrl);
 
         return GatewayRouterFunctions.route("room-service")
-                .route(RequestPredicates.path("/api/room"), request -> {
-                    log.info("Received request for room service: {}", request.uri());
-                    ServerResponse response = HandlerFunctions.http(roomServiceUrl).handle(request);
-                    log.info("Response status: {}", response.statusCode());
-                    return response;
-
-                })
+                .route(RequestPredicates.path("/api/room"), HandlerFunctions.http(roomServiceUrl))
                 .filter(CircuitBreakerFilterFunctions
                         .circuitBreaker("roomServiceCircuitBreaker", URI.create("forward:/fallbackRoute")) )
                 .build();
@@ -76,12 +69,7 @@ public class Routes {
         log.info("Initializing booking service route with URL: {}", bookingServiceUrl);
 
         return GatewayRouterFunctions.route("booking-service")
-                .route(RequestPredicates.path("/api/bookings"), request -> {
-                    log.info("Received request for booking service: {}", request.uri());
-                    ServerResponse response = HandlerFunctions.http(bookingServiceUrl).handle(request);
-                    log.info("Response status: {}", response.statusCode());
-                    return response;
-                })
+                .route(RequestPredicates.path("/api/bookings"), HandlerFunctions.http(bookingServiceUrl))
                 .filter(CircuitBreakerFilterFunctions
                         .circuitBreaker("bookingServiceCircuitBreaker", URI.create("forward:/fallbackRoute")) )
                 .build();
@@ -93,12 +81,7 @@ public class Routes {
         log.info("Initializing event service route with URL: {}", eventServiceUrl);
 
         return GatewayRouterFunctions.route("event-service")
-                .route(RequestPredicates.path("/api/events"), request -> {
-                    log.info("Received request for event service: {}", request.uri());
-                    ServerResponse response = HandlerFunctions.http(eventServiceUrl).handle(request);
-                    log.info("Response status: {}", response.statusCode());
-                    return response;
-                })
+                .route(RequestPredicates.path("/api/events"), HandlerFunctions.http(eventServiceUrl))
                 .filter(CircuitBreakerFilterFunctions
                         .circuitBreaker("eventServiceCircuitBreaker", URI.create("forward:/fallbackRoute")) )
                 .build();
@@ -110,12 +93,7 @@ public class Routes {
         log.info("Initializing approval service route with URL: {}", approvalServiceUrl);
 
         return GatewayRouterFunctions.route("approval-service")
-                .route(RequestPredicates.path("/api/approvals/process"), request -> {
-                    log.info("Received request for approval service: {}", request.uri());
-                    ServerResponse response = HandlerFunctions.http(approvalServiceUrl).handle(request);
-                    log.info("Response status: {}", response.statusCode());
-                    return response;
-                })
+                .route(RequestPredicates.path("/api/approvals/process"), HandlerFunctions.http(approvalServiceUrl))
                 .filter(CircuitBreakerFilterFunctions
                         .circuitBreaker("approvalServiceCircuitBreaker", URI.create("forward:/fallbackRoute")) )
                 .build();
@@ -180,6 +158,20 @@ public class Routes {
                 .build();
     }
 
+    // Aggregated event page, assembled in the gateway rather than proxied
+    @Bean
+    public RouterFunction<ServerResponse> eventViewRoute(EventViewHandler eventViewHandler) {
+        return GatewayRouterFunctions.route("event-view")
+                .GET("/api/views/events/{eventId}", eventViewHandler::getEventView)
+                .build();
+    }
+
+    // Route id of each proxied path prefix, for the rate-limit, concurrency-limit and access-log filters
+    @Bean
+    public RoutePaths gatewayRoutePaths(@Value("${gateway.routes:booking-service:/api/bookings,event-service:/api/events,room-service:/api/room,user-service:/api/users,approval-service:/api/approvals,event-view:/api/views}") List<String> routes) {
+        return RoutePaths.of(routes);
+    }
+
     @Bean
     public RouterFunction<ServerResponse> fallbackRoute() {
         return GatewayRouterFunctions.route("fallBackRoute")
@@ -190,6 +182,7 @@ public class Routes {
                                 request.path().startsWith("/api-docs/swagger-config")),
                         request -> {
                             log.warn("Fallback triggered for path: {}", request.path());
+                            request.attributes().put(FALLBACK_ATTRIBUTE, Boolean.TRUE);
                             return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
                                     .body("Service is Temporarily Unavailable, please try again later.");
                         })
@@ -0,0 +1,14 @@
+package ca.gbc.apigateway.views;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+// Everything an event page shows; a part is null when it does not exist or its service is listed in unavailable
+public record EventView(String eventId,
+                        JsonNode event,
+                        JsonNode booking,
+                        JsonNode room,
+                        JsonNode approval,
+                        List<String> unavailable) {
+}
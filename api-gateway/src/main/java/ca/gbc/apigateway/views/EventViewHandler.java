@@ -0,0 +1,27 @@
+package ca.gbc.apigateway.views;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+@Component
+@RequiredArgsConstructor
+public class EventViewHandler {
+
+    private final EventViewService eventViewService;
+
+    // 404 when the event does not exist, 503 when event-service cannot be reached; otherwise the view,
+    // possibly with some of its parts listed as unavailable
+    public ServerResponse getEventView(ServerRequest request) {
+        EventView view = eventViewService.getEventView(request.pathVariable("eventId"));
+        if (view.unavailable().contains("event-service")) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).body(view);
+        }
+        if (view.event() == null) {
+            return ServerResponse.notFound().build();
+        }
+        return ServerResponse.ok().body(view);
+    }
+}
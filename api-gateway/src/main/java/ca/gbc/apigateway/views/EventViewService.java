@@ -0,0 +1,110 @@
+package ca.gbc.apigateway.views;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Builds the event page from event-service, booking-service, room-service and approval-service in
+ * one gateway call. The approval is fetched alongside the event; the booking and room, whose ids
+ * come from the event, are fetched in parallel once it arrives. Each call runs through the same
+ * circuit breaker as the service's proxied route, so a dependency whose breaker is open is left
+ * out of the view and listed as unavailable instead of failing the page.
+ */
+@Slf4j
+@Service
+public class EventViewService {
+
+    private final RestClient restClient;
+    private final CircuitBreakerFactory<?, ?> circuitBreakerFactory;
+    private final AsyncTaskExecutor viewCallExecutor;
+    private final String eventServiceUrl;
+    private final String bookingServiceUrl;
+    private final String roomServiceUrl;
+    private final String approvalServiceUrl;
+
+    public EventViewService(RestClient.Builder restClientBuilder,
+                            CircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                            @Qualifier("viewCallExecutor") AsyncTaskExecutor viewCallExecutor,
+                            @Value("${services.event.url}") String eventServiceUrl,
+                            @Value("${services.booking.url}") String bookingServiceUrl,
+                            @Value("${services.room.url}") String roomServiceUrl,
+                            @Value("${services.approval.url}") String approvalServiceUrl) {
+        this.restClient = restClientBuilder.build();
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.viewCallExecutor = viewCallExecutor;
+        this.eventServiceUrl = eventServiceUrl;
+        this.bookingServiceUrl = bookingServiceUrl;
+        this.roomServiceUrl = roomServiceUrl;
+        this.approvalServiceUrl = approvalServiceUrl;
+    }
+
+    public EventView getEventView(String eventId) {
+        CompletableFuture<Part> approval = fetch("approvalServiceCircuitBreaker",
+                () -> get(approvalServiceUrl + "/api/approvals/event/{id}", eventId));
+        Part event = fetch("eventServiceCircuitBreaker",
+                () -> get(eventServiceUrl + "/api/events/{id}", eventId)).join();
+
+        CompletableFuture<Part> booking = CompletableFuture.completedFuture(Part.NONE);
+        CompletableFuture<Part> room = CompletableFuture.completedFuture(Part.NONE);
+        if (event.body() != null) {
+            String bookingId = event.body().path("bookingId").asText(null);
+            if (bookingId != null) {
+                booking = fetch("bookingServiceCircuitBreaker", () -> get(bookingServiceUrl + "/api/bookings/{id}", bookingId));
+            }
+            JsonNode roomId = event.body().path("roomId");
+            if (roomId.canConvertToInt()) {
+                room = fetch("roomServiceCircuitBreaker", () -> get(roomServiceUrl + "/api/room/{id}", roomId.asInt()));
+            }
+        }
+
+        List<String> unavailable = new ArrayList<>();
+        event.reportTo("event-service", unavailable);
+        booking.join().reportTo("booking-service", unavailable);
+        room.join().reportTo("room-service", unavailable);
+        approval.join().reportTo("approval-service", unavailable);
+        return new EventView(eventId, event.body(), booking.join().body(), room.join().body(), approval.join().body(),
+                unavailable);
+    }
+
+    private CompletableFuture<Part> fetch(String circuitBreaker, Supplier<JsonNode> call) {
+        return CompletableFuture.supplyAsync(() -> circuitBreakerFactory.create(circuitBreaker).run(
+                () -> new Part(call.get(), false),
+                throwable -> {
+                    log.warn("Leaving {} out of the event view: {}", circuitBreaker, throwable.toString());
+                    return Part.UNAVAILABLE;
+                }), viewCallExecutor);
+    }
+
+    // A missing resource is a normal answer, not a failure the breaker should count
+    private JsonNode get(String uri, Object id) {
+        try {
+            return restClient.get().uri(uri, id).retrieve().body(JsonNode.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        }
+    }
+
+    private record Part(JsonNode body, boolean unavailable) {
+
+        static final Part NONE = new Part(null, false);
+        static final Part UNAVAILABLE = new Part(null, true);
+
+        void reportTo(String service, List<String> unavailableServices) {
+            if (unavailable) {
+                unavailableServices.add(service);
+            }
+        }
+    }
+}
@@ -1,7 +1,72 @@
 package ca.gbc.apigateway;
 
+import ca.gbc.apigateway.accesslog.AccessLogFilter;
+import ca.gbc.apigateway.cache.CachedResponse;
+import ca.gbc.apigateway.cache.ResponseCache;
+import ca.gbc.apigateway.cache.ResponseCacheFilter;
+import ca.gbc.apigateway.coalesce.RequestCoalescingFilter;
+import ca.gbc.apigateway.limit.AimdConcurrencyLimiter;
+import ca.gbc.apigateway.limit.ConcurrencyLimitFilter;
+import ca.gbc.apigateway.limit.RateLimitFilter;
+import ca.gbc.apigateway.limit.TokenBucket;
+import ca.gbc.apigateway.routes.RoutePaths;
+import ca.gbc.apigateway.routes.Routes;
+import ca.gbc.apigateway.views.EventView;
+import ca.gbc.apigateway.views.EventViewService;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.ConfigBuilder;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 @SpringBootTest
 class ApiGatewayApplicationTests {
@@ -10,4 +75,493 @@ class ApiGatewayApplicationTests {
     void contextLoads() {
     }
 
+    @Test
+    void responseCache_ServesRepeatedGetsAndRevalidatesEtag() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheFilter filter = cacheFilter(meterRegistry);
+        CountingBackend backend = new CountingBackend("[{\"id\":1,\"roomName\":\"A101\"}]", null);
+
+        MockHttpServletResponse first = get(filter, backend, "/api/room", null);
+        assertEquals(200, first.getStatus());
+        assertEquals("MISS", first.getHeader("X-Cache"));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        // Set here so Spring Security's no-store default is not, and clients revalidate with the ETag
+        assertEquals("private, no-cache", first.getHeader(HttpHeaders.CACHE_CONTROL));
+
+        MockHttpServletResponse second = get(filter, backend, "/api/room", null);
+        assertEquals(200, second.getStatus());
+        assertEquals("HIT", second.getHeader("X-Cache"));
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals(etag, second.getHeader(HttpHeaders.ETAG));
+        assertEquals("private, no-cache", second.getHeader(HttpHeaders.CACHE_CONTROL));
+
+        MockHttpServletResponse revalidated = get(filter, backend, "/api/room", "W/" + etag);
+        assertEquals(304, revalidated.getStatus());
+        assertEquals(0, revalidated.getContentAsByteArray().length);
+
+        // Only the first request reached the backend
+        assertEquals(1, backend.calls.get());
+        assertEquals(2.0, meterRegistry.get("gateway.cache.requests").tags("route", "room-service", "result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.cache.requests").tags("route", "room-service", "result", "miss").counter().count());
+        assertEquals(2.0 / 3.0, meterRegistry.get("gateway.cache.hit.ratio").tag("route", "room-service").gauge().value(), 0.0001);
+        assertTrue(meterRegistry.get("gateway.cache.bytes.saved").tags("route", "room-service", "saved", "backend").counter().count() > 0);
+    }
+
+    @Test
+    void responseCache_HonoursCacheControlAndInvalidatesOnWrite() throws Exception {
+        ResponseCacheFilter filter = cacheFilter(new SimpleMeterRegistry());
+
+        CountingBackend uncacheable = new CountingBackend("{\"id\":7}", "no-store");
+        get(filter, uncacheable, "/api/users/7", null);
+        get(filter, uncacheable, "/api/users/7", null);
+        assertEquals(2, uncacheable.calls.get());
+
+        CountingBackend backend = new CountingBackend("[]", "max-age=60");
+        get(filter, backend, "/api/room", null);
+        assertEquals("max-age=60", get(filter, backend, "/api/room", null).getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(1, backend.calls.get());
+
+        MockHttpServletRequest noCache = new MockHttpServletRequest("GET", "/api/room");
+        noCache.addHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        filter.doFilter(noCache, new MockHttpServletResponse(), new MockFilterChain(backend));
+        assertEquals(2, backend.calls.get());
+
+        MockHttpServletRequest update = new MockHttpServletRequest("PUT", "/api/room/1");
+        filter.doFilter(update, new MockHttpServletResponse(), new MockFilterChain(new CountingBackend("", null)));
+        get(filter, backend, "/api/room", null);
+        assertEquals(3, backend.calls.get());
+
+        // Paths outside the configured routes are not touched
+        CountingBackend bookings = new CountingBackend("[]", null);
+        MockHttpServletResponse booking = get(filter, bookings, "/api/booking", null);
+        get(filter, bookings, "/api/booking", null);
+        assertNull(booking.getHeader(HttpHeaders.ETAG));
+        assertEquals(2, bookings.calls.get());
+    }
+
+    @Test
+    void responseCache_DoesNotStoreAMissThatAWriteOvertook() throws Exception {
+        ResponseCacheFilter filter = cacheFilter(new SimpleMeterRegistry());
+        // The GET reads the old room list, then a PUT lands and invalidates before the GET completes
+        CountingBackend stale = new CountingBackend("[{\"id\":1,\"capacity\":10}]", null) {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                super.service(request, response);
+                try {
+                    filter.doFilter(new MockHttpServletRequest("PUT", "/api/room/1"), new MockHttpServletResponse(),
+                            new MockFilterChain(new CountingBackend("", null)));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        assertEquals("MISS", get(filter, stale, "/api/room", null).getHeader("X-Cache"));
+
+        CountingBackend fresh = new CountingBackend("[{\"id\":1,\"capacity\":60}]", null);
+        MockHttpServletResponse next = get(filter, fresh, "/api/room", null);
+        assertEquals("MISS", next.getHeader("X-Cache"));
+        assertEquals(1, fresh.calls.get());
+        assertEquals("HIT", get(filter, fresh, "/api/room", null).getHeader("X-Cache"));
+    }
+
+    @Test
+    void responseCache_EvictsLeastRecentlyUsedBeyondMaxSize() {
+        ResponseCache cache = new ResponseCache(DataSize.ofBytes(10), new SimpleMeterRegistry());
+        cache.put("/a", cached("room-service", 4));
+        cache.put("/b", cached("room-service", 4));
+        assertTrue(cache.get("/a").isPresent());
+        cache.put("/c", cached("user-service", 4));
+
+        assertTrue(cache.get("/a").isPresent());
+        assertTrue(cache.get("/b").isEmpty());
+        assertTrue(cache.get("/c").isPresent());
+        assertEquals(8, cache.sizeInBytes());
+
+        assertEquals(1, cache.invalidate("user-service"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void requestCoalescing_SharesOneUpstreamCallBetweenConcurrentGets() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RequestCoalescingFilter filter = new RequestCoalescingFilter(meterRegistry, true,
+                List.of("event-service:/api/events"), false, Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        CountingBackend backend = new CountingBackend("[{\"id\":\"e1\"}]", null) {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.service(request, response);
+            }
+        };
+
+        int callers = 20;
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                responses.add(executor.submit(() -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/events"), response, new MockFilterChain(backend));
+                    return response;
+                }));
+            }
+            // Hold the upstream call until every other caller is waiting on it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (meterRegistry.get("gateway.coalesce.requests").tags("route", "event-service", "role", "follower").counter().count() < callers - 1
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertEquals(200, response.get().getStatus());
+                assertEquals("[{\"id\":\"e1\"}]", response.get().getContentAsString());
+                assertEquals("application/json", response.get().getContentType());
+            }
+        }
+
+        assertEquals(1, backend.calls.get());
+        assertEquals((callers - 1) / (double) callers,
+                meterRegistry.get("gateway.coalesce.ratio").tag("route", "event-service").gauge().value(), 0.0001);
+
+        // Once the call is over the next request goes upstream again
+        MockHttpServletResponse later = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/events"), later, new MockFilterChain(backend));
+        assertEquals(2, backend.calls.get());
+    }
+
+    @Test
+    void tokenBucket_AllowsBurstThenRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = 1_000_000_000L;
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        long wait = bucket.tryAcquire(now);
+        assertEquals(100_000_000L, wait);
+
+        assertEquals(0, bucket.tryAcquire(now + wait));
+        assertTrue(bucket.tryAcquire(now + wait) > 0);
+
+        // Idle long enough to refill, the whole burst is available again and no more
+        long later = now + 1_000_000_000L;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+
+        TokenBucket single = new TokenBucket(10, 1);
+        assertEquals(0, single.tryAcquire(now));
+        assertTrue(single.tryAcquire(now) > 0);
+        single.refund();
+        assertEquals(0, single.tryAcquire(now));
+    }
+
+    @Test
+    void rateLimit_RejectsCallerOverItsBucketWith429() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(meterRegistry, true, RoutePaths.of(List.of("booking-service:/api/bookings")),
+                1000, 1000, 0.001, 2, 100);
+        CountingBackend backend = new CountingBackend("[]", null);
+
+        assertEquals(200, callAs(filter, backend, "alice").getStatus());
+        assertEquals(200, callAs(filter, backend, "alice").getStatus());
+        MockHttpServletResponse rejected = callAs(filter, backend, "alice");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+
+        // Another caller still has its own bucket
+        assertEquals(200, callAs(filter, backend, "bob").getStatus());
+        assertEquals(3, backend.calls.get());
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.rejected").tags("route", "booking-service", "scope", "user").counter().count());
+    }
+
+    @Test
+    void rateLimit_RouteRejectionDoesNotSpendTheCallersToken() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(meterRegistry, true, RoutePaths.of(List.of("booking-service:/api/bookings")),
+                0.001, 1, 0.001, 2, 100);
+        CountingBackend backend = new CountingBackend("[]", null);
+
+        assertEquals(200, callAs(filter, backend, "alice").getStatus());
+        // The route's bucket is empty now; bob's attempts are turned away by the route, not by his own bucket
+        for (int i = 0; i < 5; i++) {
+            assertEquals(429, callAs(filter, backend, "bob").getStatus());
+        }
+        assertEquals(5.0, meterRegistry.get("gateway.ratelimit.rejected").tags("route", "booking-service", "scope", "route").counter().count());
+        assertEquals(0.0, meterRegistry.get("gateway.ratelimit.rejected").tags("route", "booking-service", "scope", "user").counter().count());
+        assertEquals(1, backend.calls.get());
+    }
+
+    @Test
+    void concurrencyLimit_ShrinksOnSlowOrFailedCallsAndShedsWith503() throws Exception {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(20, 2, 100, 0.5, 1_000_000L);
+        assertTrue(limiter.tryAcquire());
+        limiter.release(5_000_000L, false);
+        assertEquals(10, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(100_000L, true);
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(meterRegistry, true, RoutePaths.of(List.of("booking-service:/api/bookings")),
+                1, 1, 10, 0.5, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        HttpServlet slowBackend = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                response.setStatus(200);
+            }
+        };
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> first = executor.submit(() -> get(filter, slowBackend, "/api/bookings"));
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+            MockHttpServletResponse shed = get(filter, new CountingBackend("[]", null), "/api/bookings");
+            assertEquals(503, shed.getStatus());
+            assertEquals("1", shed.getHeader(HttpHeaders.RETRY_AFTER));
+
+            release.countDown();
+            assertEquals(200, first.get().getStatus());
+        }
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.rejected").tag("route", "booking-service").counter().count());
+    }
+
+    @Test
+    void concurrencyLimit_CountsBackendFailuresButNotGatewayFallbacks() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(meterRegistry, true, RoutePaths.of(List.of("booking-service:/api/bookings")),
+                8, 1, 100, 0.5, Duration.ofSeconds(5));
+        Function<Throwable, HttpServlet> fallback = cause -> new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(MvcUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR, cause);
+                response.setStatus(503);
+            }
+        };
+
+        io.github.resilience4j.circuitbreaker.CircuitBreaker breaker =
+                io.github.resilience4j.circuitbreaker.CircuitBreaker.ofDefaults("bookingServiceCircuitBreaker");
+        breaker.transitionToOpenState();
+        assertEquals(503, get(filter, fallback.apply(CallNotPermittedException.createCallNotPermittedException(breaker)), "/api/bookings").getStatus());
+        assertEquals(8.0, meterRegistry.get("gateway.concurrency.limit").tag("route", "booking-service").gauge().value());
+
+        // A subpath no route forwards is answered by the fallback route directly
+        HttpServlet unrouted = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(Routes.FALLBACK_ATTRIBUTE, Boolean.TRUE);
+                response.setStatus(503);
+            }
+        };
+        assertEquals(503, get(filter, unrouted, "/api/bookings/b1").getStatus());
+        assertEquals(8.0, meterRegistry.get("gateway.concurrency.limit").tag("route", "booking-service").gauge().value());
+
+        assertEquals(503, get(filter, fallback.apply(new TimeoutException("timed out")), "/api/bookings").getStatus());
+        assertEquals(4.0, meterRegistry.get("gateway.concurrency.limit").tag("route", "booking-service").gauge().value());
+
+        HttpServlet failing = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                response.setStatus(500);
+            }
+        };
+        get(filter, failing, "/api/bookings");
+        assertEquals(2.0, meterRegistry.get("gateway.concurrency.limit").tag("route", "booking-service").gauge().value());
+    }
+
+    @Test
+    void accessLog_RecordsLatencyPerRouteAndStatusClass() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccessLogFilter filter = new AccessLogFilter(meterRegistry, true, 1.0, 64, RoutePaths.of(List.of("room-service:/api/room")));
+        try {
+            get(filter, new CountingBackend("[]", null), "/api/room");
+            get(filter, new CountingBackend("[]", null), "/api/room/3");
+            get(filter, new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest request, HttpServletResponse response) {
+                    response.setStatus(503);
+                }
+            }, "/api/bookings");
+
+            assertEquals(2, meterRegistry.get("gateway.route.latency").tags("route", "room-service", "status", "2xx").timer().count());
+            assertEquals(1, meterRegistry.get("gateway.route.latency").tags("route", "other", "status", "5xx").timer().count());
+            assertEquals(0.0, meterRegistry.get("gateway.access-log.dropped").gauge().value());
+        } finally {
+            filter.stop();
+        }
+    }
+
+    @Test
+    void accessLog_KeepsWritingAfterAnEntryFailsToLog() throws Exception {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        ch.qos.logback.classic.Logger accessLogger = loggerContext.getLogger("gateway.access");
+        ListAppender<ILoggingEvent> written = new ListAppender<>();
+        written.start();
+        accessLogger.addAppender(written);
+        // Stands in for a broken appender or encoder: logging the /api/boom line throws on the writer thread
+        TurboFilter failing = new TurboFilter() {
+            @Override
+            public FilterReply decide(Marker marker, ch.qos.logback.classic.Logger logger, Level level, String format,
+                                      Object[] params, Throwable t) {
+                if (logger == accessLogger && format != null && format.contains("path=/api/boom")) {
+                    throw new IllegalStateException("appender failed");
+                }
+                return FilterReply.NEUTRAL;
+            }
+        };
+        loggerContext.addTurboFilter(failing);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AccessLogFilter filter = new AccessLogFilter(meterRegistry, true, 1.0, 64, RoutePaths.of(List.of("room-service:/api/room")));
+        try {
+            get(filter, new CountingBackend("[]", null), "/api/boom");
+            get(filter, new CountingBackend("[]", null), "/api/room/3");
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (written.list.stream().noneMatch(event -> event.getFormattedMessage().contains("path=/api/room/3"))
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(written.list.stream().anyMatch(event -> event.getFormattedMessage().contains("path=/api/room/3")));
+            assertEquals(1.0, meterRegistry.get("gateway.access-log.failed").counter().count());
+        } finally {
+            filter.stop();
+            loggerContext.getTurboFilterList().remove(failing);
+            accessLogger.detachAppender(written);
+        }
+    }
+
+    @Test
+    void eventView_MergesAllServicesAndLeavesOutOpenCircuits() {
+        RestClient.Builder restClientBuilder = RestClient.builder();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restClientBuilder).ignoreExpectOrder(true).build();
+        server.expect(requestTo("http://event/api/events/e1")).andRespond(withSuccess(
+                "{\"id\":\"e1\",\"eventName\":\"Launch\",\"roomId\":7,\"bookingId\":\"b1\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://booking/api/bookings/b1")).andRespond(withSuccess(
+                "{\"id\":\"b1\",\"roomId\":7}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://room/api/room/7")).andRespond(withSuccess(
+                "{\"id\":7,\"name\":\"Hall\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://approval/api/approvals/event/e1")).andRespond(withStatus(HttpStatus.NOT_FOUND));
+        server.expect(requestTo("http://event/api/events/e2")).andRespond(withSuccess(
+                "{\"id\":\"e2\",\"roomId\":7}", MediaType.APPLICATION_JSON));
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("view-call-");
+        executor.setVirtualThreads(true);
+        OpenCircuits circuits = new OpenCircuits();
+        EventViewService service = new EventViewService(restClientBuilder, circuits, executor,
+                "http://event", "http://booking", "http://room", "http://approval");
+
+        EventView view = service.getEventView("e1");
+        assertEquals("Launch", view.event().path("eventName").asText());
+        assertEquals("b1", view.booking().path("id").asText());
+        assertEquals("Hall", view.room().path("name").asText());
+        // Not reviewed yet is an answer, not an outage
+        assertNull(view.approval());
+        assertEquals(List.of(), view.unavailable());
+
+        circuits.open.add("roomServiceCircuitBreaker");
+        circuits.open.add("approvalServiceCircuitBreaker");
+        EventView partial = service.getEventView("e2");
+        assertEquals("e2", partial.event().path("id").asText());
+        assertNull(partial.room());
+        assertEquals(List.of("room-service", "approval-service"), partial.unavailable());
+        server.verify();
+    }
+
+    private static MockHttpServletResponse callAs(RateLimitFilter filter, HttpServlet backend, String subject) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.setUserPrincipal(() -> subject);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(backend));
+        return response;
+    }
+
+    private static MockHttpServletResponse get(Filter filter, HttpServlet backend, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", path), response, new MockFilterChain(backend));
+        return response;
+    }
+
+    private static ResponseCacheFilter cacheFilter(MeterRegistry meterRegistry) {
+        ResponseCache cache = new ResponseCache(DataSize.ofMegabytes(1), meterRegistry);
+        return new ResponseCacheFilter(cache, meterRegistry, true,
+                List.of("room-service:/api/room", "user-service:/api/users"), Duration.ofSeconds(30), DataSize.ofKilobytes(64));
+    }
+
+    private static MockHttpServletResponse get(ResponseCacheFilter filter, HttpServlet backend, String path, String ifNoneMatch)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(backend));
+        return response;
+    }
+
+    private static CachedResponse cached(String route, int bytes) {
+        return new CachedResponse(route, "application/json", new byte[bytes], "\"x\"", "private, no-cache",
+                Instant.now().plusSeconds(60));
+    }
+
+    // Runs every call except those on the listed breakers, which go straight to their fallback
+    private static final class OpenCircuits extends CircuitBreakerFactory<Object, ConfigBuilder<Object>> {
+
+        private final Set<String> open = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public CircuitBreaker create(String id) {
+            return new CircuitBreaker() {
+                @Override
+                public <T> T run(Supplier<T> toRun, Function<Throwable, T> fallback) {
+                    return open.contains(id) ? fallback.apply(new IllegalStateException(id + " is open")) : toRun.get();
+                }
+            };
+        }
+
+        @Override
+        protected ConfigBuilder<Object> configBuilder(String id) {
+            return () -> id;
+        }
+
+        @Override
+        public void configureDefault(Function<String, Object> defaultConfiguration) {
+        }
+    }
+
+    private static class CountingBackend extends HttpServlet {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final String body;
+        private final String cacheControl;
+
+        CountingBackend(String body, String cacheControl) {
+            this.body = body;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            calls.incrementAndGet();
+            response.setStatus(200);
+            response.setContentType("application/json");
+            if (cacheControl != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            }
+            response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
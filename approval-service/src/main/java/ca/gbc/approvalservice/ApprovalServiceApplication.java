@@ -2,8 +2,10 @@ package ca.gbc.approvalservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableCaching
 public class ApprovalServiceApplication {
 
     public static void main(String[] args) {
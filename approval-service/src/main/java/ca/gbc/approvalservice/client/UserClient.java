@@ -1,12 +1,19 @@
 package ca.gbc.approvalservice.client;
 
+import ca.gbc.approvalservice.dto.UserSummary;
 import groovy.util.logging.Slf4j;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.PostExchange;
+
+import java.util.List;
 
 @Slf4j
 public interface UserClient {
@@ -17,9 +24,16 @@ public interface UserClient {
     @Retry(name = "user")
     String getUserRole(@PathVariable("userId") Integer userId);
 
+    // Role and type of many users in one call; used by UserLookupBatcher. No fallback, a failed call fails the lookups waiting on it
+    @PostExchange("/api/users/batch")
+    @CircuitBreaker(name = "user")
+    @Retry(name = "user")
+    List<UserSummary> getUsers(@RequestBody List<Integer> userIds);
+
     @GetExchange("/api/users/{userId}/type")
     @CircuitBreaker(name = "user", fallbackMethod = "fallbackMethod")
     @Retry(name = "user")
+    @Cacheable(cacheNames = "userTypes", unless = "#result == null || #result == 'UNKNOWN'")
     default String getUserType(@PathVariable("userId") Integer userId) {
         // Simulate a failure
         throw new RuntimeException("Simulated failure for testing fallback");
@@ -31,5 +45,10 @@ public interface UserClient {
         return "UNKNOWN";
     }
 
+    // Drops a cached user type, e.g. after the user's type was changed in user-service
+    @CacheEvict(cacheNames = "userTypes")
+    default void evictUserType(Integer userId) {
+    }
+
 
 }
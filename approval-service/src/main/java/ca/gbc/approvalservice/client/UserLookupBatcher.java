@@ -0,0 +1,182 @@
+package ca.gbc.approvalservice.client;
+
+import ca.gbc.approvalservice.dto.UserSummary;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collects single user lookups made at about the same time into one POST /api/users/batch call.
+ * A lookup made while no batch call is in flight goes out at once. Otherwise it opens a short
+ * window, and every lookup arriving within it, or until the batch is full, shares the next
+ * request. Concurrent lookups of the same id share a result. A batch user-service rejects as a bad
+ * request is asked again one id at a time, so one bad id fails only its own lookup.
+ */
+@Slf4j
+@Component
+public class UserLookupBatcher {
+
+    private final UserClient userClient;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("user-lookup-batcher").daemon().factory());
+    // Batch calls block on HTTP, so each one gets its own virtual thread
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Map<Integer, CompletableFuture<Optional<UserSummary>>> pending = new LinkedHashMap<>();
+    private int inFlight;
+
+    public UserLookupBatcher(UserClient userClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${user.batch.window-ms:5}") long windowMs,
+                             @Value("${user.batch.max-size:100}") int maxBatchSize) {
+        this.userClient = userClient;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder("approval.user.lookup.batch.size")
+                .description("User lookups sent per batch call to user-service")
+                .register(meterRegistry);
+    }
+
+    // Completes with the user, or empty if user-service does not know the id
+    public CompletableFuture<Optional<UserSummary>> lookup(Integer userId) {
+        if (userId == null) {
+            // user-service rejects a batch holding a null id, which would fail every lookup sharing it
+            return CompletableFuture.failedFuture(new IllegalArgumentException("User id must not be null"));
+        }
+        CompletableFuture<Optional<UserSummary>> result;
+        Map<Integer, CompletableFuture<Optional<UserSummary>>> batch = null;
+        lock.lock();
+        try {
+            result = pending.get(userId);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                pending.put(userId, result);
+                // With no call in flight there is nothing to batch with, so waiting out the window would only add latency
+                if (pending.size() >= maxBatchSize || inFlight == 0) {
+                    batch = takePending();
+                } else if (pending.size() == 1) {
+                    // A timer left over from a batch that filled up early may flush this one sooner; that is harmless
+                    timer.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (batch != null) {
+            send(batch);
+        }
+        return result;
+    }
+
+    // Blocking form of lookup(); a failed batch call is rethrown as it came from UserClient
+    public Optional<UserSummary> getUser(Integer userId) {
+        try {
+            return lookup(userId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void flush() {
+        Map<Integer, CompletableFuture<Optional<UserSummary>>> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        send(batch);
+    }
+
+    // Called with the lock held; the caller must send the batch it gets
+    private Map<Integer, CompletableFuture<Optional<UserSummary>>> takePending() {
+        Map<Integer, CompletableFuture<Optional<UserSummary>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        inFlight++;
+        return batch;
+    }
+
+    private void send(Map<Integer, CompletableFuture<Optional<UserSummary>>> batch) {
+        batchSizes.record(batch.size());
+        sender.execute(() -> {
+            Map<Integer, UserSummary> users;
+            try {
+                users = userClient.getUsers(List.copyOf(batch.keySet())).stream()
+                        .filter(UserSummary::exists)
+                        .collect(Collectors.toMap(UserSummary::id, Function.identity(), (a, b) -> a));
+            } catch (HttpClientErrorException e) {
+                if (batch.size() > 1) {
+                    log.warn("Batch lookup of {} users was rejected, asking for each alone: {}", batch.size(), e.getMessage());
+                    split(batch);
+                    sent();
+                    return;
+                }
+                sent();
+                batch.values().forEach(future -> future.completeExceptionally(e));
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Batch lookup of {} users failed: {}", batch.size(), e.getMessage());
+                sent();
+                batch.values().forEach(future -> future.completeExceptionally(e));
+                return;
+            }
+            sent();
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(users.get(id))));
+        });
+    }
+
+    // Sends every lookup of a rejected batch on its own; each counts as a call in flight until it is sent
+    private void split(Map<Integer, CompletableFuture<Optional<UserSummary>>> batch) {
+        lock.lock();
+        try {
+            inFlight += batch.size();
+        } finally {
+            lock.unlock();
+        }
+        batch.forEach((id, future) -> send(Map.of(id, future)));
+    }
+
+    // Before the waiting lookups complete, so a caller's next lookup does not wait for this call
+    private void sent() {
+        lock.lock();
+        try {
+            inFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdown();
+        sender.shutdown();
+    }
+}
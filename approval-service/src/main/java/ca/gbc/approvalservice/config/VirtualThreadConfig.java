@@ -0,0 +1,18 @@
+package ca.gbc.approvalservice.config;
+
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Pinned request threads (jvm.threads.virtual.pinned) while they wait on the user lookup batcher or RestClient
+    @Bean
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
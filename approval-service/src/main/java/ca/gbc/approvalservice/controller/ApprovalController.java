@@ -2,16 +2,27 @@ package ca.gbc.approvalservice.controller;
 
 import ca.gbc.approvalservice.client.EventClient;
 import ca.gbc.approvalservice.client.UserClient;
+import ca.gbc.approvalservice.client.UserLookupBatcher;
 import ca.gbc.approvalservice.dto.ApprovalRequest;
 import ca.gbc.approvalservice.dto.ApprovalResponse;
+import ca.gbc.approvalservice.dto.PageResponse;
+import ca.gbc.approvalservice.dto.UserSummary;
 import ca.gbc.approvalservice.service.ApprovalService;
 import org.springframework.web.client.RestClientException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/approvals")
@@ -20,7 +31,15 @@ public class ApprovalController {
 
     private final ApprovalService approvalService;
     private final UserClient userClient;
+    private final UserLookupBatcher userLookupBatcher;
     private final EventClient eventClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${approval.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${approval.page.max-size:1000}")
+    private int maxPageSize;
 
     @GetMapping
     public ResponseEntity<List<ApprovalResponse>> getAllApprovals() {
@@ -28,20 +47,55 @@ public class ApprovalController {
         return new ResponseEntity<>(approvals, HttpStatus.OK);
     }
 
+    // Retrieve approvals one page at a time; pass the returned nextCursor as "after" for the next page
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<ApprovalResponse>> getApprovalsPage(@RequestParam(required = false) String after,
+                                                                           @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        try {
+            return ResponseEntity.ok(approvalService.getApprovalsPage(after, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Every approval as newline-delimited JSON
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamApprovals() {
+        StreamingResponseBody body = out -> approvalService.streamAllApprovals(approval -> writeLine(out, approval));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 
     @PostMapping("/process")
     public ResponseEntity<ApprovalResponse> processApproval(@RequestBody ApprovalRequest request) {
 
-        // Validate the reviewer role
+        if (request.reviewerId() == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApprovalResponse(null, request.eventId(), null, "PENDING", "Reviewer id is required"));
+        }
+
+        // Validate the reviewer role; concurrent approvals share one batch lookup against user-service
         String reviewerRole;
         try {
-            reviewerRole = userClient.getUserRole(request.reviewerId());
-        } catch (RestClientException e) {
-            if (e.getMessage().contains("404")) {
+            Optional<UserSummary> reviewer = userLookupBatcher.getUser(request.reviewerId());
+            if (reviewer.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(new ApprovalResponse(null, request.eventId(), request.reviewerId(), "PENDING", "Reviewer not found"));
             }
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            reviewerRole = reviewer.get().role();
+        } catch (RuntimeException e) {
+            // Open breaker, timeout or error response: without a known role nobody may approve
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                     .body(new ApprovalResponse(null, request.eventId(), request.reviewerId(), "PENDING", "Error while validating reviewer role"));
         }
 
@@ -93,4 +147,12 @@ public class ApprovalController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    // The approval decision for an event; 404 while nobody has reviewed it yet
+    @GetMapping("/event/{eventId}")
+    public ResponseEntity<ApprovalResponse> getApprovalByEventId(@PathVariable String eventId) {
+        return approvalService.getApprovalByEventId(eventId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
 }
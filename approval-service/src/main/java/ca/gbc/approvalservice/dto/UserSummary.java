@@ -0,0 +1,9 @@
+package ca.gbc.approvalservice.dto;
+
+public record UserSummary(
+        Integer id,
+        boolean exists,
+        String role,
+        String userType
+) {
+}
@@ -1,15 +1,21 @@
 package ca.gbc.approvalservice.service;
 
 import ca.gbc.approvalservice.dto.ApprovalResponse;
+import ca.gbc.approvalservice.dto.PageResponse;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ApprovalService {
 
     List<ApprovalResponse> getAllApprovals();
+    PageResponse<ApprovalResponse> getApprovalsPage(String after, int size);
+    void streamAllApprovals(Consumer<ApprovalResponse> consumer);
     ApprovalResponse approveEvent(String approvalId, Integer reviewerId,String comments);
     ApprovalResponse rejectEvent(String approvalId, Integer reviewerId, String comments);
     ApprovalResponse getApprovalById(String approvalId);
+    Optional<ApprovalResponse> getApprovalByEventId(String eventId);
 
 
 
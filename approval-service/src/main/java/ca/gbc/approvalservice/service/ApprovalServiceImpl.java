@@ -2,16 +2,25 @@ package ca.gbc.approvalservice.service;
 
 import ca.gbc.approvalservice.client.EventClient;
 import ca.gbc.approvalservice.dto.ApprovalResponse;
+import ca.gbc.approvalservice.dto.PageResponse;
 import ca.gbc.approvalservice.model.Approval;
 import ca.gbc.approvalservice.repository.ApprovalRepository;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -20,6 +29,9 @@ public class ApprovalServiceImpl implements ApprovalService {
 
     private final ApprovalRepository approvalRepository;
     private final EventClient eventClient;
+    private final MongoTemplate mongoTemplate;
+
+    private static final int STREAM_CURSOR_BATCH_SIZE = 500;
 
     @Override
     public List<ApprovalResponse> getAllApprovals() {
@@ -29,6 +41,27 @@ public class ApprovalServiceImpl implements ApprovalService {
                 .collect(Collectors.toList());
     }
 
+    // Keyset page on _id; the cursor is the last id of the previous page
+    @Override
+    public PageResponse<ApprovalResponse> getApprovalsPage(String after, int size) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+        if (after != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+        }
+        List<Approval> approvals = mongoTemplate.find(query, Approval.class);
+        List<ApprovalResponse> items = approvals.stream().limit(size).map(this::mapToApprovalResponse).toList();
+        String nextCursor = approvals.size() > size ? items.get(items.size() - 1).id() : null;
+        return new PageResponse<>(items, nextCursor);
+    }
+
+    @Override
+    public void streamAllApprovals(Consumer<ApprovalResponse> consumer) {
+        Query query = new Query().cursorBatchSize(STREAM_CURSOR_BATCH_SIZE);
+        try (Stream<Approval> approvals = mongoTemplate.stream(query, Approval.class)) {
+            approvals.map(this::mapToApprovalResponse).forEach(consumer);
+        }
+    }
+
     @Override
     public ApprovalResponse approveEvent(String eventId, Integer reviewerId, String comments) {
         // Retrieve the approval record or create a new one if it doesn't exist
@@ -93,6 +126,12 @@ public class ApprovalServiceImpl implements ApprovalService {
 
         return mapToApprovalResponse(approval);
     }
+
+    @Override
+    public Optional<ApprovalResponse> getApprovalByEventId(String eventId) {
+        return approvalRepository.findByEventId(eventId).map(this::mapToApprovalResponse);
+    }
+
     private ApprovalResponse mapToApprovalResponse(Approval approval) {
         return new ApprovalResponse(
                 approval.getId(),
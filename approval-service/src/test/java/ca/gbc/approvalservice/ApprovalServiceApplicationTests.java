@@ -2,26 +2,58 @@ package ca.gbc.approvalservice;
 
 import ca.gbc.approvalservice.client.EventClient;
 import ca.gbc.approvalservice.client.UserClient;
+import ca.gbc.approvalservice.client.UserLookupBatcher;
 import ca.gbc.approvalservice.controller.ApprovalController;
 import ca.gbc.approvalservice.dto.ApprovalRequest;
 import ca.gbc.approvalservice.dto.ApprovalResponse;
+import ca.gbc.approvalservice.dto.PageResponse;
+import ca.gbc.approvalservice.dto.UserSummary;
 import ca.gbc.approvalservice.service.ApprovalService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,6 +81,9 @@ public class ApprovalServiceApplicationTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserLookupBatcher userLookupBatcher;
+
     private ApprovalRequest approvalRequest;
     private ApprovalResponse approvalResponse;
 
@@ -56,6 +91,24 @@ public class ApprovalServiceApplicationTests {
     void setup() {
         approvalRequest = new ApprovalRequest("eventId123", 37, "APPROVED", "Looks good");
         approvalResponse = new ApprovalResponse("approvalId123", "eventId123", 37, "APPROVED", "Looks good");
+        stubUserRole(null);
+    }
+
+    // The real batcher runs on top of the mocked UserClient, with a window wide enough for the concurrency test
+    @TestConfiguration
+    static class UserLookupBatcherConfig {
+        @Bean
+        UserLookupBatcher userLookupBatcher(UserClient userClient) {
+            return new UserLookupBatcher(userClient, new SimpleMeterRegistry(), 100, 100);
+        }
+    }
+
+    // Every user looked up in a batch exists and has the given role
+    @SuppressWarnings("unchecked")
+    private void stubUserRole(String role) {
+        Mockito.when(userClient.getUsers(anyList())).thenAnswer(invocation -> ((List<Integer>) invocation.getArgument(0)).stream()
+                .map(id -> new UserSummary(id, true, role, "STAFF"))
+                .toList());
     }
 
     @Test
@@ -74,7 +127,7 @@ public class ApprovalServiceApplicationTests {
 
     @Test
     void processApproval_ApproveEvent_ReturnsApprovedResponse() throws Exception {
-        Mockito.when(userClient.getUserRole(any(Integer.class))).thenReturn("SUPERADMIN");
+        stubUserRole("SUPERADMIN");
         Mockito.when(eventClient.checkEventExists(anyString())).thenReturn(true);
         Mockito.when(approvalService.approveEvent(anyString(), any(Integer.class), anyString())).thenReturn(approvalResponse);
 
@@ -95,7 +148,7 @@ public class ApprovalServiceApplicationTests {
         ApprovalRequest rejectRequest = new ApprovalRequest("eventId123", 37, "REJECTED", "Not enough details");
         ApprovalResponse rejectedResponse = new ApprovalResponse("approvalId123", "eventId123", 37, "REJECTED", "Not enough details");
 
-        Mockito.when(userClient.getUserRole(any(Integer.class))).thenReturn("SUPERADMIN");
+        stubUserRole("SUPERADMIN");
         Mockito.when(eventClient.checkEventExists(anyString())).thenReturn(true);
         Mockito.when(approvalService.rejectEvent(anyString(), any(Integer.class), anyString())).thenReturn(rejectedResponse);
 
@@ -125,7 +178,7 @@ public class ApprovalServiceApplicationTests {
 
     @Test
     void processApproval_UserNotAuthorized_ReturnsForbidden() throws Exception {
-        Mockito.when(userClient.getUserRole(any(Integer.class))).thenReturn("USER");
+        stubUserRole("USER");
 
         mockMvc.perform(post("/api/approvals/process")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -137,7 +190,7 @@ public class ApprovalServiceApplicationTests {
     @Test
     void processApproval_EventNotFound_ReturnsNotFound() throws Exception {
         // Mock the user role to return SUPERADMIN
-        Mockito.when(userClient.getUserRole(any(Integer.class))).thenReturn("SUPERADMIN");
+        stubUserRole("SUPERADMIN");
 
         // Create a minimal Request object to pass to FeignException.NotFound
         Request request = Request.create(HttpMethod.GET, "/api/events/eventId123/exists", Collections.emptyMap(), Request.Body.empty(), new RequestTemplate());
@@ -167,4 +220,210 @@ public class ApprovalServiceApplicationTests {
                 .andExpect(jsonPath("$.status", is(approvalResponse.status())))
                 .andExpect(jsonPath("$.comments", is(approvalResponse.comments())));
     }
+
+    @Test
+    void getApprovalByEventId_ReturnsApprovalOrNotFound() throws Exception {
+        Mockito.when(approvalService.getApprovalByEventId("eventId123")).thenReturn(Optional.of(approvalResponse));
+        Mockito.when(approvalService.getApprovalByEventId("unreviewed")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/approvals/event/eventId123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(approvalResponse.id())))
+                .andExpect(jsonPath("$.status", is(approvalResponse.status())));
+
+        mockMvc.perform(get("/api/approvals/event/unreviewed"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void processApproval_UnknownReviewer_ReturnsNotFound() throws Exception {
+        Mockito.when(userClient.getUsers(anyList())).thenReturn(List.of(new UserSummary(37, false, null, null)));
+
+        mockMvc.perform(post("/api/approvals/process")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(approvalRequest)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.comments", is("Reviewer not found")));
+    }
+
+    @Test
+    void userLookupBatcher_CombinesConcurrentLookupsIntoOneCall() throws Exception {
+        stubUserRole("ADMIN");
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(userClient.getUsers(List.of(999))).thenAnswer(invocation -> {
+            release.await();
+            return List.of(new UserSummary(999, true, "ADMIN", "STAFF"));
+        });
+        // A lone lookup goes out at once; while its call is in flight the ones below collect in the window
+        CompletableFuture<Optional<UserSummary>> held = userLookupBatcher.lookup(999);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<UserSummary>>> lookups = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 40; i++) {
+                int userId = i % 20;   // Every id is asked for twice
+                lookups.add(executor.submit(() -> {
+                    start.await();
+                    return userLookupBatcher.getUser(userId);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < lookups.size(); i++) {
+                assertEquals(i % 20, lookups.get(i).get().orElseThrow().id());
+            }
+        }
+        release.countDown();
+        assertEquals(999, held.get().orElseThrow().id());
+
+        Mockito.verify(userClient, Mockito.times(1)).getUsers(argThat(ids -> ids.size() == 20));
+        Mockito.verify(userClient, Mockito.never()).getUserRole(any(Integer.class));
+    }
+
+    @Test
+    void userLookupBatcher_SendsALoneLookupWithoutWaitingForTheWindow() throws Exception {
+        stubUserRole("ADMIN");
+        // A window no test would wait out
+        UserLookupBatcher batcher = new UserLookupBatcher(userClient, new SimpleMeterRegistry(), TimeUnit.HOURS.toMillis(1), 100);
+        try {
+            assertEquals(7, batcher.lookup(7).get(5, TimeUnit.SECONDS).orElseThrow().id());
+        } finally {
+            batcher.shutdown();
+        }
+        Mockito.verify(userClient).getUsers(List.of(7));
+    }
+
+    @Test
+    void processApproval_OpenUserBreaker_RefusesInsteadOfFallingBack() throws Exception {
+        Mockito.when(userClient.getUsers(anyList()))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("user")));
+
+        mockMvc.perform(post("/api/approvals/process")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(approvalRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status", is("PENDING")))
+                .andExpect(jsonPath("$.comments", is("Error while validating reviewer role")));
+
+        Mockito.verify(approvalService, Mockito.never()).approveEvent(anyString(), any(Integer.class), anyString());
+        Mockito.verify(eventClient, Mockito.never()).checkEventExists(anyString());
+    }
+
+    @Test
+    void processApproval_MissingReviewer_ReturnsBadRequest() throws Exception {
+        ApprovalRequest anonymous = new ApprovalRequest("eventId123", null, "APPROVED", "Looks good");
+
+        mockMvc.perform(post("/api/approvals/process")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(anonymous)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.comments", is("Reviewer id is required")));
+
+        Mockito.verify(userClient, Mockito.never()).getUsers(anyList());
+    }
+
+    @Test
+    void userLookupBatcher_RejectedIdFailsOnlyItsOwnLookup() throws Exception {
+        stubUserRole("ADMIN");
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(userClient.getUsers(List.of(999))).thenAnswer(invocation -> {
+            release.await();
+            return List.of(new UserSummary(999, true, "ADMIN", "STAFF"));
+        });
+        Mockito.when(userClient.getUsers(argThat(ids -> ids != null && ids.contains(13))))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY, null, null));
+        // Keeps a call in flight so the lookups below share one window
+        CompletableFuture<Optional<UserSummary>> held = userLookupBatcher.lookup(999);
+
+        CompletableFuture<Optional<UserSummary>> nullId = userLookupBatcher.lookup(null);
+        CompletableFuture<Optional<UserSummary>> first = userLookupBatcher.lookup(1);
+        CompletableFuture<Optional<UserSummary>> rejected = userLookupBatcher.lookup(13);
+        CompletableFuture<Optional<UserSummary>> second = userLookupBatcher.lookup(2);
+
+        ExecutionException nullFailure = assertThrows(ExecutionException.class, () -> nullId.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, nullFailure.getCause());
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).orElseThrow().id());
+        assertEquals(2, second.get(5, TimeUnit.SECONDS).orElseThrow().id());
+        ExecutionException rejection = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(HttpClientErrorException.class, rejection.getCause());
+        release.countDown();
+        assertEquals(999, held.get(5, TimeUnit.SECONDS).orElseThrow().id());
+
+        Mockito.verify(userClient).getUsers(List.of(1, 13, 2));
+        Mockito.verify(userClient).getUsers(List.of(13));
+        Mockito.verify(userClient, Mockito.never()).getUsers(argThat(ids -> ids != null && ids.stream().anyMatch(Objects::isNull)));
+    }
+
+    @Test
+    void userClient_CachesUserTypesUntilEvicted() {
+        UserClient downstream = Mockito.mock(UserClient.class);
+        Mockito.when(downstream.getUserType(1)).thenReturn("FACULTY");
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(CachingEnabled.class);
+            context.registerBean(CacheManager.class, () -> new CaffeineCacheManager("userTypes"));
+            context.registerBean(UserClient.class, () -> downstream);
+            context.refresh();
+            UserClient userClient = context.getBean(UserClient.class);
+
+            assertEquals("FACULTY", userClient.getUserType(1));
+            assertEquals("FACULTY", userClient.getUserType(1));
+            Mockito.verify(downstream, Mockito.times(1)).getUserType(1);
+
+            userClient.evictUserType(1);
+            assertEquals("FACULTY", userClient.getUserType(1));
+            Mockito.verify(downstream, Mockito.times(2)).getUserType(1);
+        }
+    }
+
+    @Test
+    void getApprovalsPage_FollowsCursorAndRejectsBadOnes() throws Exception {
+        ApprovalResponse second = new ApprovalResponse("approvalId456", "eventId456", 37, "REJECTED", "Room too small");
+        Mockito.when(approvalService.getApprovalsPage(null, 1))
+                .thenReturn(new PageResponse<>(List.of(approvalResponse), "approvalId123"));
+        Mockito.when(approvalService.getApprovalsPage("approvalId123", 1000))
+                .thenReturn(new PageResponse<>(List.of(second), null));
+        Mockito.when(approvalService.getApprovalsPage("not-an-id", 100))
+                .thenThrow(new IllegalArgumentException("invalid hexadecimal representation"));
+
+        mockMvc.perform(get("/api/approvals/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is("approvalId123")))
+                .andExpect(jsonPath("$.nextCursor", is("approvalId123")));
+        // The continuation asks for more than the maximum and is capped
+        mockMvc.perform(get("/api/approvals/page").param("after", "approvalId123").param("size", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is("approvalId456")))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+        mockMvc.perform(get("/api/approvals/page").param("after", "not-an-id"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamApprovals_WritesOneJsonLinePerApproval() throws Exception {
+        ApprovalResponse second = new ApprovalResponse("approvalId456", "eventId456", 37, "REJECTED", "Room too small");
+        Mockito.doAnswer(invocation -> {
+            Consumer<ApprovalResponse> consumer = invocation.getArgument(0);
+            consumer.accept(approvalResponse);
+            consumer.accept(second);
+            return null;
+        }).when(approvalService).streamAllApprovals(any());
+
+        MvcResult started = mockMvc.perform(get("/api/approvals/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("approvalId123", objectMapper.readValue(lines.get(0), ApprovalResponse.class).id());
+        assertEquals("approvalId456", objectMapper.readValue(lines.get(1), ApprovalResponse.class).id());
+    }
+
+    // Turns on the caching proxy for the UserClient mock the test registers
+    @EnableCaching
+    static class CachingEnabled {
+    }
 }
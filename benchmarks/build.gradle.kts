@@ -0,0 +1,49 @@
+plugins {
+    java
+    id("io.spring.dependency-management") version "1.1.6"
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "ca.gbc"
+version = "0.0.1-SNAPSHOT"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(23)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+// The services declare their dependencies without versions, so resolve them against the same BOMs
+dependencyManagement {
+    imports {
+        mavenBom("org.springframework.boot:spring-boot-dependencies:3.3.5")
+        mavenBom("org.springframework.cloud:spring-cloud-dependencies:2023.0.3")
+    }
+}
+
+dependencies {
+    jmh(project(":api-gateway"))
+    jmh(project(":booking-service"))
+    jmh(project(":event-service"))
+    jmh(project(":user-service"))
+    jmh("org.testcontainers:postgresql")
+    jmh("org.springframework.kafka:spring-kafka")
+}
+
+// Results are written as JSON so runs from different commits can be diffed or charted:
+//   ./gradlew :benchmarks:jmh -Pjmh.includes=IntervalTree
+jmh {
+    jmhVersion = "1.37"
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    timeUnit = "us"
+    benchmarkMode = listOf("avgt")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    includes = (findProperty("jmh.includes") as String?)?.let { listOf(it) } ?: listOf(".*")
+}
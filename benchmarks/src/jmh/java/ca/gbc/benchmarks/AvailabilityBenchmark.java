@@ -0,0 +1,60 @@
+package ca.gbc.benchmarks;
+
+import ca.gbc.bookingservice.index.IntervalTree;
+import ca.gbc.bookingservice.model.Booking;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory availability check: the interval tree behind RoomBookingIndex against a
+ * linear overlap scan of the same bookings.
+ */
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 6, 0, 0);
+
+    @Param({"100", "10000"})
+    private int bookingsPerRoom;
+
+    private IntervalTree tree;
+    private List<Booking> roomBookings;
+
+    @Setup
+    public void setUp() {
+        // One booking every two hours, so half of all probes land in a gap
+        tree = new IntervalTree();
+        roomBookings = new ArrayList<>(bookingsPerRoom);
+        for (int i = 0; i < bookingsPerRoom; i++) {
+            LocalDateTime start = BASE.plusHours(2L * i);
+            tree.insert("booking-" + i, start, start.plusHours(1));
+            roomBookings.add(new Booking("booking-" + i, 37, 201, start, start.plusHours(1), "Seeded"));
+        }
+    }
+
+    private LocalDateTime probeStart() {
+        return BASE.plusMinutes(30L * ThreadLocalRandom.current().nextInt(bookingsPerRoom * 4));
+    }
+
+    @Benchmark
+    public boolean intervalTreeOverlap() {
+        LocalDateTime start = probeStart();
+        return tree.overlaps(start, start.plusMinutes(30));
+    }
+
+    @Benchmark
+    public boolean linearScanOverlap() {
+        LocalDateTime start = probeStart();
+        LocalDateTime end = start.plusMinutes(30);
+        for (Booking booking : roomBookings) {
+            if (booking.getStartTime().isBefore(end) && booking.getEndTime().isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
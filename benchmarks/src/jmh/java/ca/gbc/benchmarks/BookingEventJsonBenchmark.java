@@ -0,0 +1,39 @@
+package ca.gbc.benchmarks;
+
+import ca.gbc.bookingservice.event.BookingEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Jackson round trip of the BookingEvent payload, using the same ObjectMapper setup as
+ * spring-kafka's JsonSerializer and JsonDeserializer.
+ */
+@State(Scope.Benchmark)
+public class BookingEventJsonBenchmark {
+
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    private BookingEvent event;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 10, 14, 0);
+        event = new BookingEvent("6745f2a1c3b9a81d2e4f7a10", 201, 37, start, start.plusHours(3),
+                "Career Fair", "Conference", 120, "6745f2a1c3b9a81d2e4f7a11");
+        json = objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public BookingEvent deserialize() throws IOException {
+        return objectMapper.readValue(json, BookingEvent.class);
+    }
+}
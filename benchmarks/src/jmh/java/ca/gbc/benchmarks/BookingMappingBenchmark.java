@@ -0,0 +1,89 @@
+package ca.gbc.benchmarks;
+
+import ca.gbc.bookingservice.catalog.RoomCatalogReplica;
+import ca.gbc.bookingservice.client.RoomClient;
+import ca.gbc.bookingservice.dto.BookingResponse;
+import ca.gbc.bookingservice.dto.RoomSummary;
+import ca.gbc.bookingservice.index.RoomBookingIndex;
+import ca.gbc.bookingservice.model.Booking;
+import ca.gbc.bookingservice.model.OutboxEvent;
+import ca.gbc.bookingservice.repository.BookingRepository;
+import ca.gbc.bookingservice.repository.OutboxEventRepository;
+import ca.gbc.bookingservice.service.BookingServiceImpl;
+import ca.gbc.bookingservice.service.RoomReservations;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Booking to BookingResponse mapping, measured through getAllBookings() over an
+ * in-memory repository so only the mapping and list building are timed.
+ */
+@State(Scope.Benchmark)
+public class BookingMappingBenchmark {
+
+    @Param({"100", "10000"})
+    private int bookings;
+
+    private MongoClient mongoClient;
+    private BookingServiceImpl bookingService;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 6, 8, 0);
+        List<Booking> stored = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime start = base.plusHours(i);
+            stored.add(new Booking("booking-" + i, i % 200, i % 300, start, start.plusMinutes(90), "Study group " + i));
+        }
+        BookingRepository repository = RepositoryStubs.inMemory(BookingRepository.class, Booking::getId, stored);
+        OutboxEventRepository outbox = RepositoryStubs.inMemory(OutboxEventRepository.class, OutboxEvent::getId, List.of());
+
+        // The real collaborators; getAllBookings never queries Mongo, so no server needs to be running
+        mongoClient = MongoClients.create("mongodb://localhost:27017");
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "benchmark");
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        bookingService = new BookingServiceImpl(repository,
+                new RoomCatalogReplica(new UnknownRooms(), meterRegistry),
+                mongoTemplate,
+                new RoomBookingIndex(mongoTemplate, meterRegistry),
+                new RoomReservations(mongoTemplate),
+                outbox);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public List<BookingResponse> mapAllBookings() {
+        return bookingService.getAllBookings();
+    }
+
+    // room-service stand-in that knows no rooms
+    private static final class UnknownRooms implements RoomClient {
+
+        @Override
+        public RoomSummary getRoomSummary(Integer roomId) {
+            return new RoomSummary(roomId, false, false, null);
+        }
+
+        @Override
+        public List<RoomSummary> getRoomSummaries(List<Integer> roomIds) {
+            return roomIds.stream().map(this::getRoomSummary).toList();
+        }
+
+        @Override
+        public List<RoomSummary> getAllRoomSummaries() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ca.gbc.benchmarks;
+
+import ca.gbc.eventservice.client.BookingClient;
+import ca.gbc.eventservice.dto.BookingRequest;
+import ca.gbc.eventservice.dto.BookingResponse;
+import ca.gbc.eventservice.dto.EventRequest;
+import ca.gbc.eventservice.dto.EventResponse;
+import ca.gbc.eventservice.model.Event;
+import ca.gbc.eventservice.repository.EventRepository;
+import ca.gbc.eventservice.service.EventServiceImpl;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Field-by-field diffing in EventServiceImpl.updateEvent against an in-memory repository,
+ * once for a request that matches the stored event and once for one that changes every field.
+ */
+@State(Scope.Benchmark)
+public class EventUpdateBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 10, 14, 0);
+    private static final String[] STATUSES = {"PENDING", "APPROVED"};
+    private static final String[] BOOKING_IDS = {"booking-1", "booking-2"};
+
+    private final Event stored = new Event();
+    private MongoClient mongoClient;
+    private EventServiceImpl eventService;
+
+    private final EventRequest unchanged = new EventRequest("Career Fair", 37, "Conference", 120,
+            START, START.plusHours(3), 201);
+    private final EventRequest[] alternating = {
+            new EventRequest("Career Fair", 37, "Conference", 120, START, START.plusHours(3), 201),
+            new EventRequest("Hackathon", 38, "Workshop", 60, START.plusDays(1), START.plusDays(1).plusHours(8), 202)
+    };
+    private int next;
+
+    @Setup
+    public void setUp() {
+        stored.setId("event-1");
+        stored.setEventName("Career Fair");
+        stored.setOrganizerId(37);
+        stored.setEventType("Conference");
+        stored.setExpectedAttendees(120);
+        stored.setStartTime(START);
+        stored.setEndTime(START.plusHours(3));
+        stored.setRoomId(201);
+        stored.setBookingId("booking-1");
+        stored.setStatus("PENDING");
+
+        EventRepository repository = RepositoryStubs.inMemory(EventRepository.class, Event::getId, List.of(stored));
+        // updateEvent never queries Mongo or calls booking-service, so no server needs to be running
+        mongoClient = MongoClients.create("mongodb://localhost:27017");
+        eventService = new EventServiceImpl(repository, new AcceptingBookings(), new MongoTemplate(mongoClient, "benchmark"),
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public EventResponse updateUnchanged() {
+        return eventService.updateEvent("event-1", unchanged, "PENDING", "booking-1");
+    }
+
+    @Benchmark
+    public EventResponse updateEveryField() {
+        // Alternate between two requests so each call differs from what the previous one stored
+        int i = next++ & 1;
+        return eventService.updateEvent("event-1", alternating[i], STATUSES[i], BOOKING_IDS[i]);
+    }
+
+    // booking-service stand-in that accepts every call
+    private static final class AcceptingBookings implements BookingClient {
+
+        @Override
+        public ResponseEntity<BookingResponse> createEventBooking(BookingRequest bookingRequest) {
+            return ResponseEntity.ok().build();
+        }
+
+        @Override
+        public ResponseEntity<Void> deleteBooking(String bookingId) {
+            return ResponseEntity.noContent().build();
+        }
+
+        @Override
+        public ResponseEntity<Boolean> isRoomAvailable(Integer roomId, String startTime, String endTime) {
+            return ResponseEntity.ok(true);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ca.gbc.benchmarks;
+
+import ca.gbc.bookingservice.dto.RoomFreeSlots;
+import ca.gbc.bookingservice.index.FreeSlotFinder;
+import ca.gbc.bookingservice.model.Booking;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The free-slot sweep behind GET /api/bookings/free-slots, over a month of bookings
+ * already sorted the way the Mongo query returns them.
+ */
+@State(Scope.Benchmark)
+public class FreeSlotFinderBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 6, 0, 0);
+    private static final int DAYS = 30;
+
+    @Param({"100", "500"})
+    private int rooms;
+
+    private final List<Integer> roomIds = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (int room = 1000; room < 1000 + rooms; room++) {
+            roomIds.add(room);
+            for (int day = 0; day < DAYS; day++) {
+                LocalDateTime date = BASE.plusDays(day).plusHours(room % 4);
+                bookings.add(new Booking(null, 37, room, date.plusHours(8), date.plusHours(9).plusMinutes(30), "Morning"));
+                bookings.add(new Booking(null, 37, room, date.plusHours(11), date.plusHours(12), "Noon"));
+                bookings.add(new Booking(null, 37, room, date.plusHours(15), date.plusHours(17), "Afternoon"));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<RoomFreeSlots> freeSlotsForAMonth() {
+        return FreeSlotFinder.findFreeSlots(roomIds, bookings, BASE, BASE.plusDays(DAYS), Duration.ofMinutes(30));
+    }
+}
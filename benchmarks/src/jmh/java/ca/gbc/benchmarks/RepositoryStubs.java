@@ -0,0 +1,96 @@
+package ca.gbc.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-memory Spring Data repositories so service code can be benchmarked without Mongo. The
+ * CRUD methods work on a map keyed by entity id, in insertion order; derived queries are
+ * answered by the functions passed in, and anything else fails naming the method. Not
+ * thread-safe, like the single-threaded benchmarks that use it.
+ */
+final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    static <R, T, ID> R inMemory(Class<R> repositoryType, Function<T, ID> idOf, Collection<T> entities) {
+        return inMemory(repositoryType, idOf, entities, Map.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    static <R, T, ID> R inMemory(Class<R> repositoryType, Function<T, ID> idOf, Collection<T> entities,
+                                 Map<String, Function<Object[], Object>> queries) {
+        Map<ID, T> store = new LinkedHashMap<>();
+        Function<T, T> save = entity -> {
+            ID id = idOf.apply(entity);
+            if (id == null) {
+                throw new IllegalArgumentException(repositoryType.getSimpleName() + " stub needs entities with an id");
+            }
+            store.put(id, entity);
+            return entity;
+        };
+        entities.forEach(save::apply);
+
+        return (R) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> query = queries.get(method.getName());
+                    if (query != null) {
+                        return query.apply(args);
+                    }
+                    int arity = args == null ? 0 : args.length;
+                    return switch (method.getName() + "/" + arity) {
+                        case "findAll/0" -> List.copyOf(store.values());
+                        case "count/0" -> (long) store.size();
+                        case "findById/1" -> Optional.ofNullable(store.get((ID) args[0]));
+                        case "existsById/1" -> store.containsKey((ID) args[0]);
+                        case "findAllById/1" -> {
+                            List<T> found = new ArrayList<>();
+                            ((Iterable<ID>) args[0]).forEach(id -> Optional.ofNullable(store.get(id)).ifPresent(found::add));
+                            yield found;
+                        }
+                        case "save/1", "insert/1" -> args[0] instanceof Iterable<?> iterable
+                                ? saveAll((Iterable<T>) iterable, save)
+                                : save.apply((T) args[0]);
+                        case "saveAll/1" -> saveAll((Iterable<T>) args[0], save);
+                        case "deleteById/1" -> {
+                            store.remove((ID) args[0]);
+                            yield null;
+                        }
+                        case "delete/1" -> {
+                            store.remove(idOf.apply((T) args[0]));
+                            yield null;
+                        }
+                        case "deleteAllById/1" -> {
+                            ((Iterable<ID>) args[0]).forEach(store::remove);
+                            yield null;
+                        }
+                        case "deleteAll/1" -> {
+                            ((Iterable<T>) args[0]).forEach(entity -> store.remove(idOf.apply(entity)));
+                            yield null;
+                        }
+                        case "deleteAll/0" -> {
+                            store.clear();
+                            yield null;
+                        }
+                        case "toString/0" -> repositoryType.getSimpleName() + " stub";
+                        case "hashCode/0" -> System.identityHashCode(proxy);
+                        case "equals/1" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(
+                                repositoryType.getSimpleName() + "." + method.getName() + " has no in-memory implementation");
+                    };
+                });
+    }
+
+    private static <T> List<T> saveAll(Iterable<T> entities, Function<T, T> save) {
+        List<T> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save.apply(entity)));
+        return saved;
+    }
+}
@@ -0,0 +1,94 @@
+package ca.gbc.benchmarks;
+
+import ca.gbc.userservice.UserServiceApplication;
+import ca.gbc.userservice.model.User;
+import ca.gbc.userservice.repository.UserRepository;
+import ca.gbc.userservice.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * User type lookup as served by GET /api/users/{id}/type, against a real Postgres: the old
+ * path loading the whole User entity through findById, and the read-only projection query
+ * the service uses now. Needs Docker for the Postgres container.
+ */
+@State(Scope.Benchmark)
+public class UserLookupBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserService userService;
+    private int[] userIds;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16");
+        postgres.start();
+        SpringApplication application = new SpringApplication(UserServiceApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        // Arguments rather than default properties: they win over whichever application.properties is first on the classpath
+        context = application.run(
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.flyway.locations=classpath:db/migration",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--debug=false",
+                "--logging.level.root=WARN");
+        userRepository = context.getBean(UserRepository.class);
+        userService = context.getBean(UserService.class);
+
+        List<User> users = IntStream.range(0, USERS)
+                .mapToObj(i -> User.builder()
+                        .name("User " + i)
+                        .email("user" + i + "@example.com")
+                        .role(User.Role.values()[i % User.Role.values().length])
+                        .userType(User.UserType.values()[i % User.UserType.values().length])
+                        .build())
+                .toList();
+        userIds = userRepository.saveAll(users).stream().mapToInt(User::getId).toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    private int randomUserId() {
+        return userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+    }
+
+    @Benchmark
+    public String entityLookup() {
+        return userRepository.findById(randomUserId()).map(user -> user.getUserType().name()).orElse("UNKNOWN");
+    }
+
+    @Benchmark
+    public String projectionLookup() {
+        return userService.getUserType(randomUserId());
+    }
+
+    // The endpoint is hit concurrently from every service, so also measure with threads competing for the pool
+    @Benchmark
+    @Threads(8)
+    public String entityLookupConcurrent() {
+        return userRepository.findById(randomUserId()).map(user -> user.getUserType().name()).orElse("UNKNOWN");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String projectionLookupConcurrent() {
+        return userService.getUserType(randomUserId());
+    }
+}
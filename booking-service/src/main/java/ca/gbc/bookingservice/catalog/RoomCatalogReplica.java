@@ -0,0 +1,141 @@
+package ca.gbc.bookingservice.catalog;
+
+import ca.gbc.bookingservice.client.RoomClient;
+import ca.gbc.bookingservice.dto.RoomSummary;
+import ca.gbc.bookingservice.event.RoomChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local replica of room-service's catalog, fed from the compacted room-catalog topic. Each
+ * instance assigns itself the topic's single partition and reads it from offset 0 on every
+ * start, without a consumer group, so it always ends up with the latest state of every room.
+ * Lookups are answered locally; a room the replica has not seen yet, or a bulk lookup before
+ * the replica has caught up, falls back to RoomClient.
+ */
+@Slf4j
+@Component
+public class RoomCatalogReplica {
+
+    private final RoomClient roomClient;
+    private final Map<Integer, RoomSummary> rooms = new ConcurrentHashMap<>();
+    private final Counter localLookups;
+    private final Counter remoteLookups;
+
+    private volatile boolean caughtUp;
+
+    public RoomCatalogReplica(RoomClient roomClient, MeterRegistry meterRegistry) {
+        this.roomClient = roomClient;
+        this.localLookups = Counter.builder("booking.room-catalog.lookups")
+                .description("Room lookups, by whether the local replica answered them")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.remoteLookups = Counter.builder("booking.room-catalog.lookups")
+                .description("Room lookups, by whether the local replica answered them")
+                .tag("source", "remote")
+                .register(meterRegistry);
+        Gauge.builder("booking.room-catalog.size", rooms, Map::size)
+                .description("Rooms held in the local room catalog replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+
+    public RoomSummary getRoomSummary(Integer roomId) {
+        RoomSummary room = rooms.get(roomId);
+        if (room != null) {
+            localLookups.increment();
+            return room;
+        }
+        remoteLookups.increment();
+        return roomClient.getRoomSummary(roomId);
+    }
+
+    // One entry per requested id, in request order
+    public List<RoomSummary> getRoomSummaries(List<Integer> roomIds) {
+        if (!caughtUp) {
+            remoteLookups.increment();
+            return roomClient.getRoomSummaries(roomIds);
+        }
+        localLookups.increment();
+        return roomIds.stream()
+                .map(id -> rooms.getOrDefault(id, missing(id)))
+                .toList();
+    }
+
+    public List<RoomSummary> getAllRoomSummaries() {
+        if (!caughtUp) {
+            remoteLookups.increment();
+            return roomClient.getAllRoomSummaries();
+        }
+        localLookups.increment();
+        return rooms.values().stream()
+                .filter(RoomSummary::exists)
+                .sorted(Comparator.comparing(RoomSummary::id))
+                .toList();
+    }
+
+    @KafkaListener(
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = "${booking.room-catalog.topic:room-catalog}",
+                    partitionOffsets = @PartitionOffset(partition = "0", initialOffset = "0")),
+            autoStartup = "${booking.room-catalog.enabled:true}",
+            properties = {
+                    "enable.auto.commit=false",
+                    "key.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "value.deserializer=org.springframework.kafka.support.serializer.JsonDeserializer",
+                    "spring.json.type.mapping=roomChanged:ca.gbc.bookingservice.event.RoomChangedEvent"
+            })
+    public void onRoomChanged(ConsumerRecord<String, RoomChangedEvent> record, Consumer<?, ?> consumer) {
+        apply(record.key(), record.value());
+        if (!caughtUp && isCaughtUp(consumer)) {
+            caughtUp = true;
+            log.info("Room catalog replica caught up with {} rooms", rooms.size());
+        }
+    }
+
+    // A null event is a tombstone: the room was deleted
+    public void apply(String key, RoomChangedEvent event) {
+        Integer roomId = Integer.valueOf(key);
+        if (event == null) {
+            rooms.put(roomId, missing(roomId));
+            return;
+        }
+        rooms.put(roomId, new RoomSummary(roomId, true, Boolean.TRUE.equals(event.getAvailability()), event.getCapacity()));
+    }
+
+    private static boolean isCaughtUp(Consumer<?, ?> consumer) {
+        Set<TopicPartition> assignment = consumer.assignment();
+        if (assignment.isEmpty()) {
+            return false;
+        }
+        for (TopicPartition partition : assignment) {
+            OptionalLong lag = consumer.currentLag(partition);
+            if (lag.isEmpty() || lag.getAsLong() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static RoomSummary missing(Integer roomId) {
+        return new RoomSummary(roomId, false, false, null);
+    }
+}
@@ -1,31 +1,42 @@
 package ca.gbc.bookingservice.client;
 
+import ca.gbc.bookingservice.dto.RoomSummary;
 import groovy.util.logging.Slf4j;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.PostExchange;
+
+import java.util.List;
 
 @Slf4j
 public interface RoomClient {
     Logger log = LoggerFactory.getLogger(RoomClient.class);
 
-    @GetExchange("/api/room/{roomId}/availability")
+    // Existence, maintenance status and capacity in a single call
+    @GetExchange("/api/room/{roomId}/summary")
     @CircuitBreaker(name = "room", fallbackMethod = "fallbackMethod")
     @Retry(name = "room")
-    boolean getRoomAvailability(@PathVariable Integer roomId);
+    RoomSummary getRoomSummary(@PathVariable Integer roomId);
 
-    @GetExchange("/api/room/{roomId}/exists")
-    @CircuitBreaker(name = "room", fallbackMethod = "fallbackMethod")
-//    @Retry(name = "room")
-    boolean checkRoomExists(@PathVariable Integer roomId);
+    // Bulk lookups for free-slot searches; no fallback, a room-service outage should fail the search rather than hide rooms
+    @PostExchange("/api/room/summaries")
+    @CircuitBreaker(name = "room")
+    @Retry(name = "room")
+    List<RoomSummary> getRoomSummaries(@RequestBody List<Integer> roomIds);
+
+    @GetExchange("/api/room/summaries")
+    @CircuitBreaker(name = "room")
+    @Retry(name = "room")
+    List<RoomSummary> getAllRoomSummaries();
 
-    default boolean fallbackMethod(Integer roomId, Throwable throwable) {
+    default RoomSummary fallbackMethod(Integer roomId, Throwable throwable) {
         log.warn("Fallback executed for room check. Room ID: {}, Reason: {}", roomId, throwable.getMessage());
-        return false; // Return false by default, as rooms may be considered unavailable or non-existent in case of failure
+        return new RoomSummary(roomId, false, false, null); // Rooms are considered non-existent and unavailable in case of failure
     }
 
 }
@@ -4,6 +4,8 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,6 +19,7 @@ public interface UserClient {
 
     @GetExchange("/api/users/{userId}/type")
     @CircuitBreaker(name = "user", fallbackMethod = "fallbackUserType")
+    @Cacheable(cacheNames = "userTypes", unless = "#result == null || #result == 'UNKNOWN_TYPE'")
 //    @Retry(name = "user", fallbackMethod = "fallbackUserType")
     String getUserType(@PathVariable("userId") Integer userId);
 
@@ -29,4 +32,9 @@ public interface UserClient {
         return "UNKNOWN_TYPE";
     }
 
+    // Drops a cached user type, e.g. after the user's type was changed in user-service
+    @CacheEvict(cacheNames = "userTypes")
+    default void evictUserType(Integer userId) {
+    }
+
 }
@@ -0,0 +1,36 @@
+package ca.gbc.bookingservice.config;
+
+import ca.gbc.bookingservice.model.Booking;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bookings written before optimistic versioning have no version field, which Spring Data
+ * would treat as new documents and try to insert again on save. Give them version 0.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingVersionBackfill {
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillVersions() {
+        UpdateResult result = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("version").exists(false)),
+                Update.update("version", 0L),
+                Booking.class);
+        if (result.getModifiedCount() > 0) {
+            log.info("Initialized version on {} existing bookings", result.getModifiedCount());
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package ca.gbc.bookingservice.config;
 import ca.gbc.bookingservice.client.RoomClient;
 import ca.gbc.bookingservice.client.UserClient;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.ClientHttpRequestFactories;
-import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
 
 @Configuration
@@ -22,11 +33,32 @@ public class RestClientConfig {
     @Value("${user.service.url}")
     private String userServiceUrl;
 
+    @Value("${booking.http-client.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${booking.http-client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${booking.http-client.connect-timeout:3s}")
+    private Duration connectTimeout;
+
+    @Value("${booking.http-client.read-timeout:3s}")
+    private Duration readTimeout;
+
+    @Value("${booking.http-client.keep-alive:15s}")
+    private Duration keepAlive;
+
+    @Value("${booking.http-client.time-to-live:5m}")
+    private Duration timeToLive;
+
+    @Value("${booking.http-client.http2:false}")
+    private boolean http2;
+
     @Bean
-    public RoomClient roomClient() {
+    public RoomClient roomClient(ClientHttpRequestFactory internalClientHttpRequestFactory) {
         RestClient restClient = RestClient.builder()
                 .baseUrl(roomServiceUrl)
-                .requestFactory(getClientRequestFactory())
+                .requestFactory(internalClientHttpRequestFactory)
                 .build();
 
         var restClientAdapter = RestClientAdapter.create(restClient);
@@ -35,10 +67,10 @@ public class RestClientConfig {
     }
 
     @Bean
-    public UserClient userClient() {
+    public UserClient userClient(ClientHttpRequestFactory internalClientHttpRequestFactory) {
         RestClient restClient = RestClient.builder()
                 .baseUrl(userServiceUrl)
-                .requestFactory(getClientRequestFactory())
+                .requestFactory(internalClientHttpRequestFactory)
                 .build();
 
         var restClientAdapter = RestClientAdapter.create(restClient);
@@ -46,10 +78,56 @@ public class RestClientConfig {
         return httpServiceProxyFactory.createClient(UserClient.class);
     }
 
-    private ClientHttpRequestFactory getClientRequestFactory(){
-        ClientHttpRequestFactorySettings clientHttpRequestFactorySettings = ClientHttpRequestFactorySettings.DEFAULTS
-                .withConnectTimeout(Duration.ofSeconds(3))
-                .withReadTimeout(Duration.ofSeconds(3));
-        return ClientHttpRequestFactories.get(clientHttpRequestFactorySettings);
+    // One pool shared by every internal client; max-connections-per-route applies to each downstream service separately
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager internalConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    // httpcomponents.httpclient.pool.* gauges: leased, available and pending connections per pool
+    @Bean
+    public MeterBinder internalConnectionPoolMetrics(PoolingHttpClientConnectionManager internalConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(internalConnectionManager, "internal");
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient internalHttpClient(PoolingHttpClientConnectionManager internalConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(internalConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Waiting for a free pooled connection counts against the connect timeout
+                        .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                // Retire idle connections well before the downstream services' embedded Tomcat closes them;
+                // its keep-alive timeout defaults to the 60s connection timeout
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory internalClientHttpRequestFactory(CloseableHttpClient internalHttpClient) {
+        if (http2) {
+            // HTTP/2 (h2c) multiplexes every call to a service over one connection; the pool above is then unused
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .build();
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(client);
+            requestFactory.setReadTimeout(readTimeout);
+            return requestFactory;
+        }
+        return new HttpComponentsClientHttpRequestFactory(internalHttpClient);
     }
 }
@@ -0,0 +1,18 @@
+package ca.gbc.bookingservice.config;
+
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // jvm.threads.virtual.pinned, for bookings that pin their carrier in the room index or the Mongo driver
+    @Bean
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
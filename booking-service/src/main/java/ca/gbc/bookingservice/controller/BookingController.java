@@ -3,16 +3,27 @@ package ca.gbc.bookingservice.controller;
 import ca.gbc.bookingservice.client.UserClient;
 import ca.gbc.bookingservice.dto.BookingRequest;
 import ca.gbc.bookingservice.dto.BookingResponse;
+import ca.gbc.bookingservice.dto.PageResponse;
+import ca.gbc.bookingservice.dto.RoomFreeSlots;
 import ca.gbc.bookingservice.service.BookingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Slf4j
@@ -23,6 +34,16 @@ public class BookingController {
 
     private final BookingService bookingService;
     private final UserClient userClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${booking.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${booking.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${booking.free-slots.max-window-days:62}")
+    private int maxFreeSlotWindowDays;
 
     // Create a new booking
     @PostMapping
@@ -86,6 +107,35 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    // Retrieve bookings one page at a time; pass the returned nextCursor as "after" for the next page
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<BookingResponse>> getBookingsPage(@RequestParam(required = false) String after,
+                                                                         @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        try {
+            return ResponseEntity.ok(bookingService.getBookingsPage(after, pageSize));
+        } catch (IllegalArgumentException e) {
+            log.info("Rejected invalid booking page cursor: {}", after);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Stream all bookings as newline-delimited JSON straight from a Mongo cursor
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookings() {
+        StreamingResponseBody body = out -> bookingService.streamAllBookings(booking -> writeLine(out, booking));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     // Retrieve bookings by user ID
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<BookingResponse>> getBookingsByUserId(@PathVariable Integer userId) {
@@ -121,6 +171,7 @@ public class BookingController {
                 case "Room not found" -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Room not found.");
                 case "Room under maintenance" -> ResponseEntity.status(HttpStatus.CONFLICT).body("Room is under maintenance and cannot be booked.");
                 case "Room not available for the requested time" -> ResponseEntity.status(HttpStatus.CONFLICT).body("Room is not available for the requested time.");
+                case "Booking was modified concurrently" -> ResponseEntity.status(HttpStatus.CONFLICT).body("Booking was modified by another request, please retry.");
                 default -> ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Booking update failed.");
             };
         }
@@ -148,4 +199,25 @@ public class BookingController {
         boolean available = bookingService.isRoomAvailable(roomId, startTime, endTime);
         return ResponseEntity.ok(available);
     }
+
+    // Free intervals per room inside the window; minDuration is an ISO-8601 duration such as PT1H
+    @GetMapping("/free-slots")
+    public ResponseEntity<List<RoomFreeSlots>> findFreeSlots(
+            @RequestParam("startTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam("endTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(value = "minDuration", defaultValue = "PT30M") String minDuration,
+            @RequestParam(value = "roomIds", required = false) List<Integer> roomIds) {
+        Duration minimum;
+        try {
+            minimum = Duration.parse(minDuration);
+        } catch (DateTimeParseException e) {
+            log.info("Rejected invalid free-slot minimum duration: {}", minDuration);
+            return ResponseEntity.badRequest().build();
+        }
+        if (!endTime.isAfter(startTime) || minimum.isNegative()
+                || Duration.between(startTime, endTime).toDays() > maxFreeSlotWindowDays) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bookingService.findFreeSlots(startTime, endTime, minimum, roomIds));
+    }
 }
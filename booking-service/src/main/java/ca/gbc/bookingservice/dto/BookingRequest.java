@@ -7,6 +7,13 @@ public record BookingRequest(
         Integer roomId,
         LocalDateTime startTime,
         LocalDateTime endTime,
-        String purpose
+        String purpose,
+        String eventType,
+        Integer expectedAttendees
 ) {
+
+    // Plain room booking without event details
+    public BookingRequest(Integer userId, Integer roomId, LocalDateTime startTime, LocalDateTime endTime, String purpose) {
+        this(userId, roomId, startTime, endTime, purpose, null, null);
+    }
 }
@@ -0,0 +1,9 @@
+package ca.gbc.bookingservice.dto;
+
+import java.util.List;
+
+public record RoomFreeSlots(
+        Integer roomId,
+        List<TimeSlot> freeSlots
+) {
+}
@@ -0,0 +1,9 @@
+package ca.gbc.bookingservice.dto;
+
+public record RoomSummary(
+        Integer id,
+        boolean exists,
+        boolean availability,
+        Integer capacity
+) {
+}
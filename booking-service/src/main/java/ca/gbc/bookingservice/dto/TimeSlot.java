@@ -0,0 +1,9 @@
+package ca.gbc.bookingservice.dto;
+
+import java.time.LocalDateTime;
+
+public record TimeSlot(
+        LocalDateTime startTime,
+        LocalDateTime endTime
+) {
+}
@@ -17,4 +17,7 @@ public class BookingEvent {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private String purpose;
+    private String eventType;
+    private Integer expectedAttendees;
+    private String eventId;   // ID of the outbox entry it was published from, the same on every redelivery
 }
@@ -0,0 +1,61 @@
+package ca.gbc.bookingservice.index;
+
+import ca.gbc.bookingservice.dto.RoomFreeSlots;
+import ca.gbc.bookingservice.dto.TimeSlot;
+import ca.gbc.bookingservice.model.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Computes the free intervals of a set of rooms inside a time window in a single pass
+ * over their bookings. The bookings must be sorted by roomId and then startTime, which
+ * is the order the booking collection is queried in.
+ */
+public final class FreeSlotFinder {
+
+    private FreeSlotFinder() {
+    }
+
+    public static List<RoomFreeSlots> findFreeSlots(Collection<Integer> roomIds, List<Booking> sortedBookings,
+                                                    LocalDateTime windowStart, LocalDateTime windowEnd,
+                                                    Duration minDuration) {
+        List<Integer> rooms = roomIds.stream().distinct().sorted().toList();
+        List<RoomFreeSlots> result = new ArrayList<>(rooms.size());
+        int next = 0;
+        for (Integer roomId : rooms) {
+            // Skip bookings of rooms that were not asked for
+            while (next < sortedBookings.size() && sortedBookings.get(next).getRoomId() < roomId) {
+                next++;
+            }
+            List<TimeSlot> slots = new ArrayList<>();
+            LocalDateTime freeFrom = windowStart;
+            while (next < sortedBookings.size() && sortedBookings.get(next).getRoomId().equals(roomId)) {
+                Booking booking = sortedBookings.get(next++);
+                if (booking.getStartTime().isAfter(freeFrom)) {
+                    addSlot(slots, freeFrom, min(booking.getStartTime(), windowEnd), minDuration);
+                }
+                // Bookings may overlap each other, so only ever move the cursor forward
+                if (booking.getEndTime().isAfter(freeFrom)) {
+                    freeFrom = booking.getEndTime();
+                }
+            }
+            addSlot(slots, freeFrom, windowEnd, minDuration);
+            result.add(new RoomFreeSlots(roomId, slots));
+        }
+        return result;
+    }
+
+    private static void addSlot(List<TimeSlot> slots, LocalDateTime start, LocalDateTime end, Duration minDuration) {
+        if (start.isBefore(end) && Duration.between(start, end).compareTo(minDuration) >= 0) {
+            slots.add(new TimeSlot(start, end));
+        }
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
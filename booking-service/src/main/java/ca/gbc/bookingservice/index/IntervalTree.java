@@ -0,0 +1,172 @@
+package ca.gbc.bookingservice.index;
+
+import java.time.LocalDateTime;
+
+/**
+ * AVL tree of half-open booking intervals [start, end) ordered by start time.
+ * Every node keeps the latest end time of its subtree so an overlap query can
+ * prune whole branches and finish in O(log n).
+ *
+ * Not thread-safe; RoomBookingIndex guards each tree with a lock.
+ */
+public class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(String bookingId, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, new Node(bookingId, start, end));
+        size++;
+    }
+
+    public boolean remove(String bookingId, LocalDateTime start) {
+        int before = size;
+        root = remove(root, bookingId, start);
+        return size < before;
+    }
+
+    // True if any stored interval overlaps [start, end)
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+            // If the left subtree reaches past our start it holds the only candidates:
+            // everything to the right starts even later than the left-side miss did.
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.bookingId, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, String bookingId, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, bookingId, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, bookingId, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = removeMin(node.right);
+            successor.right = node.right;
+            successor.left = node.left;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int compare(LocalDateTime start, String bookingId, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : bookingId.compareTo(node.bookingId);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private final String bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(String bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
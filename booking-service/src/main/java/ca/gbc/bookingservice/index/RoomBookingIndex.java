@@ -0,0 +1,294 @@
+package ca.gbc.bookingservice.index;
+
+import ca.gbc.bookingservice.model.Booking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of bookings per room, used to answer overlap checks without a
+ * round trip to Mongo. Loaded from the booking collection once the application is
+ * ready and kept current through Mongo save/delete lifecycle events.
+ *
+ * The lifecycle events only cover this instance's writes, so the index assumes a single
+ * booking-service instance. With several replicas it lags behind the others' writes until
+ * the next consistency check; it then only serves availability queries, and reservations
+ * rely on {@code RoomReservations}, which enforces the no-overlap rule in Mongo.
+ */
+@Slf4j
+@Component
+public class RoomBookingIndex {
+
+    private final MongoTemplate mongoTemplate;
+    private final String collectionName;
+    private final Counter driftCounter;
+    // A lock rather than synchronized: rebuild() reads Mongo while holding it, which would pin a virtual thread
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Map<Integer, RoomTree> trees = new ConcurrentHashMap<>();
+    private volatile Map<String, IndexedBooking> bookings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    // Bookings written while a consistency check is scanning; null when no check is running
+    private volatile Set<String> touchedDuringCheck;
+
+    public RoomBookingIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.collectionName = mongoTemplate.getCollectionName(Booking.class);
+        this.driftCounter = Counter.builder("booking.index.drift")
+                .description("Consistency checks that found the index out of sync with Mongo")
+                .register(meterRegistry);
+        Gauge.builder("booking.index.size", this, RoomBookingIndex::size)
+                .description("Bookings held in the in-memory room index")
+                .register(meterRegistry);
+        Gauge.builder("booking.index.rooms", this, index -> index.trees.size())
+                .description("Rooms held in the in-memory room index")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return bookings.size();
+    }
+
+    public boolean hasOverlap(Integer roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        RoomTree tree = trees.get(roomId);
+        return tree != null && tree.overlaps(startTime, endTime);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        Map<Integer, RoomTree> newTrees = new ConcurrentHashMap<>();
+        Map<String, IndexedBooking> newBookings = new ConcurrentHashMap<>();
+        try (Stream<Booking> stream = streamBookings()) {
+            stream.forEach(booking -> {
+                IndexedBooking indexed = IndexedBooking.of(booking);
+                if (indexed != null) {
+                    newBookings.put(booking.getId(), indexed);
+                    newTrees.computeIfAbsent(indexed.roomId(), id -> new RoomTree())
+                            .insert(booking.getId(), indexed.startTime(), indexed.endTime());
+                }
+            });
+        }
+        trees = newTrees;
+        bookings = newBookings;
+        ready = true;
+        log.info("Room booking index loaded with {} bookings across {} rooms", newBookings.size(), newTrees.size());
+    }
+
+    // Compares the index with the booking collection and repairs the bookings that disagree.
+    // Writes keep running during the scan; bookings they touch are left out of the comparison,
+    // and every other mismatch is read again from Mongo before it counts as drift.
+    @Scheduled(initialDelayString = "${booking.index.consistency-check-interval-ms:300000}",
+            fixedDelayString = "${booking.index.consistency-check-interval-ms:300000}")
+    public boolean verifyConsistency() {
+        if (!ready) {
+            return false;
+        }
+        Set<String> touched = ConcurrentHashMap.newKeySet();
+        touchedDuringCheck = touched;
+        Set<String> mismatched = new HashSet<>();
+        try {
+            Map<String, IndexedBooking> stored = new HashMap<>();
+            try (Stream<Booking> stream = streamBookings()) {
+                stream.forEach(booking -> {
+                    IndexedBooking indexed = IndexedBooking.of(booking);
+                    if (indexed != null) {
+                        stored.put(booking.getId(), indexed);
+                    }
+                });
+            }
+            Set<String> ids = new HashSet<>(stored.keySet());
+            ids.addAll(bookings.keySet());
+            for (String id : ids) {
+                if (!touched.contains(id) && !Objects.equals(stored.get(id), bookings.get(id))) {
+                    mismatched.add(id);
+                }
+            }
+        } finally {
+            touchedDuringCheck = null;
+        }
+        if (mismatched.isEmpty()) {
+            log.debug("Room booking index is consistent with Mongo ({} bookings)", bookings.size());
+            return true;
+        }
+
+        int repaired = 0;
+        writeLock.lock();
+        try {
+            for (String id : mismatched) {
+                IndexedBooking current = mongoTemplate.findById(id, Booking.class) instanceof Booking booking
+                        ? IndexedBooking.of(booking)
+                        : null;
+                if (!Objects.equals(current, bookings.get(id))) {
+                    removeIndexed(id);
+                    if (current != null) {
+                        insertIndexed(id, current);
+                    }
+                    repaired++;
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (repaired == 0) {
+            return true;
+        }
+        log.warn("Room booking index drifted from Mongo on {} bookings; repaired them", repaired);
+        driftCounter.increment(repaired);
+        return false;
+    }
+
+    @EventListener
+    public void onAfterSave(AfterSaveEvent<?> event) {
+        if (!(event.getSource() instanceof Booking booking)) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            markTouched(booking.getId());
+            removeIndexed(booking.getId());
+            IndexedBooking indexed = IndexedBooking.of(booking);
+            if (indexed != null) {
+                insertIndexed(booking.getId(), indexed);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Listens by collection name since repository deleteAll() removes without an entity type
+    @EventListener
+    public void onAfterDelete(AfterDeleteEvent<?> event) {
+        if (!collectionName.equals(event.getCollectionName())) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Object id = event.getSource().get("_id");
+            if (id instanceof String || id instanceof ObjectId) {
+                markTouched(id.toString());
+                removeIndexed(id.toString());
+            } else {
+                // Criteria or bulk delete, we cannot tell which bookings went away
+                doRebuild();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void markTouched(String bookingId) {
+        Set<String> touched = touchedDuringCheck;
+        if (touched != null && bookingId != null) {
+            touched.add(bookingId);
+        }
+    }
+
+    private void insertIndexed(String bookingId, IndexedBooking indexed) {
+        trees.computeIfAbsent(indexed.roomId(), id -> new RoomTree())
+                .insert(bookingId, indexed.startTime(), indexed.endTime());
+        bookings.put(bookingId, indexed);
+    }
+
+    private void removeIndexed(String bookingId) {
+        if (bookingId == null) {
+            return;
+        }
+        IndexedBooking previous = bookings.remove(bookingId);
+        if (previous == null) {
+            return;
+        }
+        RoomTree tree = trees.get(previous.roomId());
+        if (tree != null) {
+            tree.remove(bookingId, previous.startTime());
+        }
+    }
+
+    private Stream<Booking> streamBookings() {
+        Query query = new Query();
+        query.fields().include("roomId", "startTime", "endTime");
+        return mongoTemplate.stream(query, Booking.class);
+    }
+
+    // One room's interval tree behind a lock of its own. Not synchronized, which would pin a
+    // virtual thread that has to wait for a writer.
+    private static final class RoomTree {
+
+        private final IntervalTree tree = new IntervalTree();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        boolean overlaps(LocalDateTime startTime, LocalDateTime endTime) {
+            lock.lock();
+            try {
+                return tree.overlaps(startTime, endTime);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void insert(String bookingId, LocalDateTime startTime, LocalDateTime endTime) {
+            lock.lock();
+            try {
+                tree.insert(bookingId, startTime, endTime);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(String bookingId, LocalDateTime startTime) {
+            lock.lock();
+            try {
+                tree.remove(bookingId, startTime);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private record IndexedBooking(Integer roomId, LocalDateTime startTime, LocalDateTime endTime) {
+
+        static IndexedBooking of(Booking booking) {
+            if (booking.getId() == null || booking.getRoomId() == null
+                    || booking.getStartTime() == null || booking.getEndTime() == null) {
+                return null;
+            }
+            return new IndexedBooking(booking.getRoomId(), booking.getStartTime(), booking.getEndTime());
+        }
+    }
+}
@@ -5,6 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -13,6 +16,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(value = "booking")
+@CompoundIndexes({
+        // Overlap checks and free-slot searches: equality on roomId, then the time range
+        @CompoundIndex(name = "roomId_startTime_endTime", def = "{'roomId': 1, 'startTime': 1, 'endTime': 1}"),
+        @CompoundIndex(name = "userId_startTime", def = "{'userId': 1, 'startTime': 1}")
+})
 @Builder
 public class Booking {
 
@@ -24,4 +32,12 @@ public class Booking {
     private LocalDateTime endTime;
     private String purpose;
 
+    // Optimistic lock so concurrent updates of the same booking cannot overwrite each other
+    @Version
+    private Long version;
+
+    public Booking(String id, Integer userId, Integer roomId, LocalDateTime startTime, LocalDateTime endTime, String purpose) {
+        this(id, userId, roomId, startTime, endTime, purpose, null);
+    }
+
 }
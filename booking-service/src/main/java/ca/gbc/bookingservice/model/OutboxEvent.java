@@ -0,0 +1,47 @@
+package ca.gbc.bookingservice.model;
+
+import ca.gbc.bookingservice.event.BookingEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A booking event waiting to be published to Kafka. Written together with the booking it
+ * describes and picked up by the outbox relay, so publishing never happens on the request thread.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(value = "booking_outbox")
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+@Builder
+public class OutboxEvent {
+
+    // IN_FLIGHT while one relay run holds the entry; FAILED once it ran out of attempts
+    public enum Status { PENDING, IN_FLIGHT, SENT, FAILED, DISCARDED }
+
+    @Id
+    private String id;
+    private String topic;
+    private String bookingId;
+    private BookingEvent payload;
+    private Status status;
+    private int attempts;
+    private Instant createdAt;
+    private Instant nextAttemptAt;   // Pushed back after every failed attempt
+
+    // The relay run holding an IN_FLIGHT entry, and when another run may take it over
+    private String claimedBy;
+    private Instant leaseExpiresAt;
+
+    // Sent entries are kept for a week for troubleshooting, pending ones have no sentAt and never expire
+    @Indexed(expireAfter = "7d")
+    private Instant sentAt;
+}
@@ -0,0 +1,50 @@
+package ca.gbc.bookingservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The time slots claimed in one room on one day; a claim is only added when it overlaps none of them.
+// A booking spanning several days has its slot in the schedule of each of those days.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(value = "room_day_schedule")
+@CompoundIndexes({
+        // Releasing a booking's or a claim's slots finds every day they were added to
+        @CompoundIndex(name = "slots_bookingId", def = "{'slots.bookingId': 1}"),
+        @CompoundIndex(name = "slots_claimId", def = "{'slots.claimId': 1}")
+})
+public class RoomSchedule {
+
+    @Id
+    private String id;   // roomId/day, see idOf
+    private Integer roomId;
+    private LocalDate day;
+    private List<Slot> slots;
+
+    public static String idOf(Integer roomId, LocalDate day) {
+        return roomId + "/" + day;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Slot {
+        private String bookingId;
+        // Identifies this claim, so a booking moved within its room can drop its old slot but keep the new one
+        private String claimId;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+    }
+}
@@ -0,0 +1,11 @@
+package ca.gbc.bookingservice.repository;
+
+import ca.gbc.bookingservice.model.OutboxEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends MongoRepository<OutboxEvent, String> {
+
+    long countByStatus(OutboxEvent.Status status);
+}
@@ -0,0 +1,258 @@
+package ca.gbc.bookingservice.service;
+
+import ca.gbc.bookingservice.event.BookingEvent;
+import ca.gbc.bookingservice.model.Booking;
+import ca.gbc.bookingservice.model.OutboxEvent;
+import ca.gbc.bookingservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes pending booking outbox entries to Kafka in batches and marks them as sent once the
+ * broker has acknowledged them. Delivery is at least once: an entry whose acknowledgement is lost
+ * is sent again on the next run.
+ * <p>
+ * Each run first claims its batch, so relays on several replicas never publish the same entry at
+ * once; a claim left by a run that died lapses after the lease. A failed entry is retried with
+ * exponential backoff behind the entries that are due, and parked as FAILED after the maximum
+ * number of attempts.
+ */
+@Slf4j
+@Component
+public class BookingOutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, BookingEvent> kafkaTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration orphanTimeout;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter exhaustedCounter;
+    private final Counter discardedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer batchTimer;
+
+    public BookingOutboxRelay(OutboxEventRepository outboxEventRepository,
+                              MongoTemplate mongoTemplate,
+                              KafkaTemplate<String, BookingEvent> kafkaTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${booking.outbox.batch-size:500}") int batchSize,
+                              @Value("${booking.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                              @Value("${booking.outbox.orphan-timeout-ms:60000}") long orphanTimeoutMs,
+                              @Value("${booking.outbox.lease-ms:60000}") long leaseMs,
+                              @Value("${booking.outbox.max-attempts:10}") int maxAttempts,
+                              @Value("${booking.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                              @Value("${booking.outbox.max-retry-backoff-ms:300000}") long maxRetryBackoffMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = Duration.ofMillis(sendTimeoutMs);
+        this.orphanTimeout = Duration.ofMillis(orphanTimeoutMs);
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+        this.maxRetryBackoff = Duration.ofMillis(maxRetryBackoffMs);
+
+        this.publishedCounter = Counter.builder("booking.outbox.published")
+                .description("Outbox entries acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("booking.outbox.failed")
+                .description("Attempts to publish an outbox entry that failed")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("booking.outbox.exhausted")
+                .description("Outbox entries given up on after the maximum number of attempts")
+                .register(meterRegistry);
+        this.discardedCounter = Counter.builder("booking.outbox.discarded")
+                .description("Outbox entries dropped because their booking was never saved")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("booking.outbox.batch.size")
+                .description("Outbox entries picked up per relay batch")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("booking.outbox.batch")
+                .description("Time taken to publish one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.pending", outboxEventRepository, repository -> repository.countByStatus(OutboxEvent.Status.PENDING))
+                .description("Outbox entries waiting to be published")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${booking.outbox.relay-interval-ms:500}",
+            fixedDelayString = "${booking.outbox.relay-interval-ms:500}")
+    public void relay() {
+        // Keep draining while batches come back full and everything in them was handled
+        while (publishBatch() == batchSize) {
+            log.debug("Outbox batch was full, publishing the next one");
+        }
+    }
+
+    // Returns how many entries of the batch were sent or discarded
+    public int publishBatch() {
+        String owner = UUID.randomUUID().toString();
+        List<OutboxEvent> batch = claimBatch(owner);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        batchSizeSummary.record(batch.size());
+        Timer.Sample sample = Timer.start();
+        try {
+            return publish(batch, owner);
+        } finally {
+            sample.stop(batchTimer);
+        }
+    }
+
+    // Marks up to a batch of due entries IN_FLIGHT for this run; an entry another run claimed in between is left to it
+    private List<OutboxEvent> claimBatch(String owner) {
+        Instant now = Instant.now();
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(OutboxEvent.Status.PENDING).and("nextAttemptAt").not().gt(now),
+                Criteria.where("status").is(OutboxEvent.Status.IN_FLIGHT).and("leaseExpiresAt").lt(now));
+        Query due = Query.query(claimable).with(Sort.by("nextAttemptAt")).limit(batchSize);
+        due.fields().include("_id");
+        List<String> ids = mongoTemplate.find(due, OutboxEvent.class).stream().map(OutboxEvent::getId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        mongoTemplate.updateMulti(Query.query(claimable).addCriteria(Criteria.where("_id").in(ids)),
+                new Update().set("status", OutboxEvent.Status.IN_FLIGHT).set("claimedBy", owner).set("leaseExpiresAt", now.plus(lease)),
+                OutboxEvent.class);
+        return mongoTemplate.find(Query.query(Criteria.where("claimedBy").is(owner)).with(Sort.by("nextAttemptAt")), OutboxEvent.class);
+    }
+
+    private int publish(List<OutboxEvent> batch, String owner) {
+        Set<String> savedBookingIds = findSavedBookingIds(batch);
+        Instant orphanCutoff = Instant.now().minus(orphanTimeout);
+
+        Map<OutboxEvent, CompletableFuture<SendResult<String, BookingEvent>>> sends = new LinkedHashMap<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        List<String> discarded = new ArrayList<>();
+        List<String> waiting = new ArrayList<>();
+        for (OutboxEvent entry : batch) {
+            if (savedBookingIds.contains(entry.getBookingId())) {
+                try {
+                    sends.put(entry, kafkaTemplate.send(entry.getTopic(), entry.getPayload()));
+                } catch (RuntimeException e) {
+                    log.warn("Could not hand outbox entry {} to the Kafka producer: {}", entry.getId(), e.getMessage());
+                    failed.add(entry);
+                }
+            } else if (entry.getCreatedAt().isBefore(orphanCutoff)) {
+                discarded.add(entry.getId());
+            } else {
+                // The booking may still be being saved, so the entry is looked at again after the due ones
+                waiting.add(entry.getId());
+            }
+        }
+        kafkaTemplate.flush();
+
+        List<String> sent = new ArrayList<>();
+        for (Map.Entry<OutboxEvent, CompletableFuture<SendResult<String, BookingEvent>>> send : sends.entrySet()) {
+            try {
+                send.getValue().get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                sent.add(send.getKey().getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(send.getKey());
+            } catch (Exception e) {
+                log.warn("Publishing outbox entry {} failed: {}", send.getKey().getId(), e.getMessage());
+                failed.add(send.getKey());
+            }
+        }
+
+        Instant now = Instant.now();
+        updateEntries(sent, owner, release(OutboxEvent.Status.SENT).set("sentAt", now).inc("attempts", 1));
+        updateEntries(discarded, owner, release(OutboxEvent.Status.DISCARDED));
+        updateEntries(waiting, owner, release(OutboxEvent.Status.PENDING).set("nextAttemptAt", now.plus(retryBackoff)));
+        int exhausted = retryLater(failed, owner, now);
+
+        publishedCounter.increment(sent.size());
+        failedCounter.increment(failed.size());
+        exhaustedCounter.increment(exhausted);
+        discardedCounter.increment(discarded.size());
+        if (!discarded.isEmpty()) {
+            log.warn("Discarded {} outbox entries whose bookings were never saved", discarded.size());
+        }
+        if (exhausted > 0) {
+            log.error("Gave up on {} outbox entries after {} attempts", exhausted, maxAttempts);
+        }
+        log.debug("Outbox batch of {} entries: {} sent, {} failed, {} discarded",
+                batch.size(), sent.size(), failed.size(), discarded.size());
+        return sent.size() + discarded.size();
+    }
+
+    // Returns how many of the failed entries ran out of attempts and were parked as FAILED
+    private int retryLater(List<OutboxEvent> failed, String owner, Instant now) {
+        Map<Integer, List<String>> byAttempts = failed.stream().collect(Collectors.groupingBy(
+                entry -> entry.getAttempts() + 1, Collectors.mapping(OutboxEvent::getId, Collectors.toList())));
+        int exhausted = 0;
+        for (Map.Entry<Integer, List<String>> group : byAttempts.entrySet()) {
+            int attempts = group.getKey();
+            if (attempts >= maxAttempts) {
+                updateEntries(group.getValue(), owner, release(OutboxEvent.Status.FAILED).set("attempts", attempts));
+                exhausted += group.getValue().size();
+            } else {
+                updateEntries(group.getValue(), owner, release(OutboxEvent.Status.PENDING).set("attempts", attempts)
+                        .set("nextAttemptAt", now.plus(backoff(attempts))));
+            }
+        }
+        return exhausted;
+    }
+
+    // Doubles with every attempt, up to the maximum
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    private static Update release(OutboxEvent.Status status) {
+        return new Update().set("status", status).unset("claimedBy").unset("leaseExpiresAt");
+    }
+
+    private Set<String> findSavedBookingIds(List<OutboxEvent> batch) {
+        Query query = Query.query(Criteria.where("_id").in(batch.stream().map(OutboxEvent::getBookingId).toList()));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Booking.class).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toSet());
+    }
+
+    // Only while this run still holds the entries; once its lease lapsed another run owns them
+    private void updateEntries(List<String> ids, String owner, Update update) {
+        if (!ids.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids).and("claimedBy").is(owner)), update, OutboxEvent.class);
+        }
+    }
+}
@@ -2,20 +2,27 @@ package ca.gbc.bookingservice.service;
 
 import ca.gbc.bookingservice.dto.BookingRequest;
 import ca.gbc.bookingservice.dto.BookingResponse;
+import ca.gbc.bookingservice.dto.PageResponse;
+import ca.gbc.bookingservice.dto.RoomFreeSlots;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
     BookingResponse createBooking(BookingRequest bookingRequest);
     BookingResponse createEventBooking(BookingRequest bookingRequest);
     List<BookingResponse> getAllBookings();
+    PageResponse<BookingResponse> getBookingsPage(String after, int size);
+    void streamAllBookings(Consumer<BookingResponse> consumer);
     List<BookingResponse> getBookingsByUserId(Integer userId);
     BookingResponse getBooking(String bookingId);
     BookingResponse updateBooking(String id, BookingRequest bookingRequest);
     boolean deleteBooking(String id);
     boolean isRoomAvailable(Integer roomId, LocalDateTime startTime, LocalDateTime endTime);
+    List<RoomFreeSlots> findFreeSlots(LocalDateTime windowStart, LocalDateTime windowEnd, Duration minDuration, List<Integer> roomIds);
 
     String getLastError();
 }
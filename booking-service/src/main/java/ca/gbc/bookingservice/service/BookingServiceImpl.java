@@ -1,35 +1,52 @@
 package ca.gbc.bookingservice.service;
 
-import ca.gbc.bookingservice.client.RoomClient;
+import ca.gbc.bookingservice.catalog.RoomCatalogReplica;
 import ca.gbc.bookingservice.dto.BookingRequest;
 import ca.gbc.bookingservice.dto.BookingResponse;
+import ca.gbc.bookingservice.dto.PageResponse;
+import ca.gbc.bookingservice.dto.RoomFreeSlots;
+import ca.gbc.bookingservice.dto.RoomSummary;
 import ca.gbc.bookingservice.event.BookingEvent;
+import ca.gbc.bookingservice.index.FreeSlotFinder;
+import ca.gbc.bookingservice.index.RoomBookingIndex;
 import ca.gbc.bookingservice.model.Booking;
+import ca.gbc.bookingservice.model.OutboxEvent;
 import ca.gbc.bookingservice.repository.BookingRepository;
+import ca.gbc.bookingservice.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.bson.types.ObjectId;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestClientException;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
-@Transactional
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
-    private final RoomClient roomClient;
+    private final RoomCatalogReplica roomCatalog;
     private final MongoTemplate mongoTemplate;
+    private final RoomBookingIndex roomBookingIndex;
+    private final RoomReservations roomReservations;
 
-    private final KafkaTemplate<String, BookingEvent> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private static final String BOOKING_TOPIC = "booking";
+    private static final int STREAM_CURSOR_BATCH_SIZE = 500;
 
     private String lastError;
 
@@ -44,37 +61,25 @@ public class BookingServiceImpl implements BookingService {
     public BookingResponse createBooking(BookingRequest bookingRequest) {
         log.debug("Attempting to create a booking: {}", bookingRequest);
 
-        // Check if room exists (let the exception propagate if it fails)
-        boolean roomExists = roomClient.checkRoomExists(bookingRequest.roomId());
-        if (!roomExists) {
+        // Check room existence and maintenance status against the local catalog (a remote miss lets the exception propagate)
+        RoomSummary room = roomCatalog.getRoomSummary(bookingRequest.roomId());
+        if (!room.exists()) {
             log.warn("Room with ID {} does not exist.", bookingRequest.roomId());
             return new BookingResponse(null, null, null, null, null, "Room Not Found");
         }
 
-        // Check room maintenance status (let the exception propagate if it fails)
-        boolean isRoomAvailableForBooking = roomClient.getRoomAvailability(bookingRequest.roomId());
-        if (!isRoomAvailableForBooking) {
+        if (!room.availability()) {
             log.info("Room {} is under maintenance and cannot be booked.", bookingRequest.roomId());
             return new BookingResponse(null, null, null, null, null, "Room under maintenance");
         }
 
-        // Check if room is available for the specified time
-        if (!isRoomAvailable(bookingRequest.roomId(), bookingRequest.startTime(), bookingRequest.endTime())) {
+        // Claim the time slot in the room's schedule first, so concurrent requests on any replica cannot double-book
+        Booking booking = reserve(bookingRequest, null);
+        if (booking == null) {
             log.info("Room {} is already booked.", bookingRequest.roomId());
             return new BookingResponse(null, null, null, null, null, "Room not available for the requested time");
         }
 
-        // Proceed to create the booking if all checks pass
-        Booking booking = Booking.builder()
-                .userId(bookingRequest.userId())
-                .roomId(bookingRequest.roomId())
-                .startTime(bookingRequest.startTime())
-                .endTime(bookingRequest.endTime())
-                .purpose(bookingRequest.purpose())
-                .build();
-
-        bookingRepository.save(booking);
-
         log.info("Booking created successfully with ID: {}", booking.getId());
 
         return mapToBookingResponse(booking); // Returns a successful BookingResponse
@@ -84,35 +89,38 @@ public class BookingServiceImpl implements BookingService {
     public BookingResponse createEventBooking(BookingRequest bookingRequest) {
         log.debug("Attempting to create an event booking: {}", bookingRequest);
 
-        // Check if room exists (let the exception propagate if it fails)
-        boolean roomExists = roomClient.checkRoomExists(bookingRequest.roomId());
-        if (!roomExists) {
+        // Check room existence and maintenance status against the local catalog (a remote miss lets the exception propagate)
+        RoomSummary room = roomCatalog.getRoomSummary(bookingRequest.roomId());
+        if (!room.exists()) {
             log.warn("Room with ID {} does not exist.", bookingRequest.roomId());
             return new BookingResponse(null, null, null, null, null, "Room Not Found");
         }
 
-        // Check room maintenance status (let the exception propagate if it fails)
-        boolean isRoomAvailableForBooking = roomClient.getRoomAvailability(bookingRequest.roomId());
-        if (!isRoomAvailableForBooking) {
+        if (!room.availability()) {
             log.info("Room {} is under maintenance and cannot be booked.", bookingRequest.roomId());
             return new BookingResponse(null, null, null, null, null, "Room under maintenance");
         }
 
-        // Proceed to create the booking if all checks pass
-        Booking booking = Booking.builder()
-                .userId(bookingRequest.userId())
-                .roomId(bookingRequest.roomId())
-                .startTime(bookingRequest.startTime())
-                .endTime(bookingRequest.endTime())
-                .purpose(bookingRequest.purpose())
-                .build();
-
-        bookingRepository.save(booking);
-        BookingEvent bookingEvent = new BookingEvent( booking.getId(), bookingRequest.roomId(),
-                bookingRequest.userId(), bookingRequest.startTime(), bookingRequest.endTime(), bookingRequest.purpose());
-        log.info("Start - Sending BookingEvent {} to Kafka topic booking", bookingEvent);
-        kafkaTemplate.send("booking", bookingEvent);
-        log.info("Complete - Sent BookingEvent {} to Kafka topic booking", bookingEvent);
+        // The BookingEvent goes into the outbox alongside the booking; BookingOutboxRelay publishes it to Kafka.
+        // It carries the entry's id so event-service can tell a redelivery from a new booking
+        String outboxId = new ObjectId().toHexString();
+        Instant queuedAt = Instant.now();
+        Booking booking = reserve(bookingRequest, reserved -> outboxEventRepository.save(OutboxEvent.builder()
+                .id(outboxId)
+                .topic(BOOKING_TOPIC)
+                .bookingId(reserved.getId())
+                .payload(new BookingEvent(reserved.getId(), reserved.getRoomId(), reserved.getUserId(),
+                        reserved.getStartTime(), reserved.getEndTime(), reserved.getPurpose(),
+                        bookingRequest.eventType(), bookingRequest.expectedAttendees(), outboxId))
+                .status(OutboxEvent.Status.PENDING)
+                .createdAt(queuedAt)
+                .nextAttemptAt(queuedAt)
+                .build()));
+        if (booking == null) {
+            log.info("Room {} is already booked.", bookingRequest.roomId());
+            return new BookingResponse(null, null, null, null, null, "Room not available for the requested time");
+        }
+        log.info("Queued BookingEvent for booking {} on Kafka topic {}", booking.getId(), BOOKING_TOPIC);
 
         return mapToBookingResponse(booking); // Returns a successful BookingResponse
     }
@@ -124,6 +132,27 @@ public class BookingServiceImpl implements BookingService {
         return bookings.stream().map(this::mapToBookingResponse).toList();
     }
 
+    // Keyset pagination on _id: each page starts after the last id of the previous one, so deep pages cost the same as the first
+    @Override
+    public PageResponse<BookingResponse> getBookingsPage(String after, int size) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+        if (after != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+        }
+        List<Booking> bookings = mongoTemplate.find(query, Booking.class);
+        List<BookingResponse> items = bookings.stream().limit(size).map(this::mapToBookingResponse).toList();
+        String nextCursor = bookings.size() > size ? items.get(items.size() - 1).id() : null;
+        return new PageResponse<>(items, nextCursor);
+    }
+
+    @Override
+    public void streamAllBookings(Consumer<BookingResponse> consumer) {
+        Query query = new Query().cursorBatchSize(STREAM_CURSOR_BATCH_SIZE);
+        try (Stream<Booking> bookings = mongoTemplate.stream(query, Booking.class)) {
+            bookings.map(this::mapToBookingResponse).forEach(consumer);
+        }
+    }
+
     @Override
     public List<BookingResponse> getBookingsByUserId(Integer userId) {
         log.debug("Fetching all bookings for user with ID {}", userId);
@@ -150,6 +179,7 @@ public class BookingServiceImpl implements BookingService {
             return null;
         }
 
+        Integer previousRoomId = booking.getRoomId();
         boolean requiresRoomCheck = false;
 
         if (!booking.getRoomId().equals(bookingRequest.roomId())) {
@@ -165,18 +195,12 @@ public class BookingServiceImpl implements BookingService {
         }
 
         if (requiresRoomCheck) {
-            boolean isRoomAvailableForBooking = roomClient.getRoomAvailability(bookingRequest.roomId());
-            if (!isRoomAvailableForBooking) {
+            if (!roomCatalog.getRoomSummary(bookingRequest.roomId()).availability()) {
                 lastError = "Room under maintenance";
                 log.info(lastError);
                 return null;
             }
 
-            if (!isRoomAvailable(bookingRequest.roomId(), bookingRequest.startTime(), bookingRequest.endTime())) {
-                lastError = "Room not available for the requested time";
-                log.info(lastError);
-                return null;
-            }
         }
 
         if (!booking.getUserId().equals(bookingRequest.userId())) {
@@ -187,8 +211,29 @@ public class BookingServiceImpl implements BookingService {
             booking.setPurpose(bookingRequest.purpose());
         }
 
-        // Save updated booking only if there are actual changes
-        bookingRepository.save(booking);
+        String claimId = null;
+        if (requiresRoomCheck) {
+            claimId = roomReservations.claim(booking.getRoomId(), id, booking.getStartTime(), booking.getEndTime());
+            if (claimId == null) {
+                lastError = "Room not available for the requested time";
+                log.info(lastError);
+                return null;
+            }
+        }
+        try {
+            bookingRepository.save(booking);
+        } catch (OptimisticLockingFailureException e) {
+            if (claimId != null) {
+                roomReservations.releaseClaim(booking.getRoomId(), claimId);
+            }
+            lastError = "Booking was modified concurrently";
+            log.info("Booking {} was modified by another request; update rejected", id);
+            return null;
+        }
+        if (claimId != null) {
+            // The booking now holds the new slot; give up the one it had before
+            roomReservations.release(previousRoomId, id, previousRoomId.equals(booking.getRoomId()) ? claimId : null);
+        }
         log.info("Updated booking with ID {}", id);
 
         // Clear lastError since the operation was successful
@@ -199,8 +244,10 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public boolean deleteBooking(String id) {
         log.debug("Deleting booking with ID {}", id);
-        if (bookingRepository.existsById(id)) {
+        Booking booking = bookingRepository.findById(id).orElse(null);
+        if (booking != null) {
             bookingRepository.deleteById(id);
+            roomReservations.release(booking.getRoomId(), id, null);
             log.info("Deleted booking with ID {}", id);
             return true;
         } else {
@@ -211,15 +258,84 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public boolean isRoomAvailable(Integer roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        // Answer from the in-memory index; only go to Mongo while the index is still loading
+        boolean available = roomBookingIndex.isReady()
+                ? !roomBookingIndex.hasOverlap(roomId, startTime, endTime)
+                : !existsOverlappingBooking(roomId, startTime, endTime);
+        log.debug("Room availability check for room ID {}: {}", roomId, available ? "Available" : "Not Available");
+        return available;
+    }
+
+    @Override
+    public List<RoomFreeSlots> findFreeSlots(LocalDateTime windowStart, LocalDateTime windowEnd, Duration minDuration, List<Integer> roomIds) {
+        // Only rooms that exist and are not under maintenance can be offered
+        List<RoomSummary> rooms = roomIds == null || roomIds.isEmpty()
+                ? roomCatalog.getAllRoomSummaries()
+                : roomCatalog.getRoomSummaries(roomIds);
+        List<Integer> bookableRoomIds = rooms.stream()
+                .filter(room -> room.exists() && room.availability())
+                .map(RoomSummary::id)
+                .toList();
+        if (bookableRoomIds.isEmpty()) {
+            return List.of();
+        }
+
+        // One query for every booking touching the window, already in the order the sweep needs
+        Query query = new Query(Criteria.where("roomId").in(bookableRoomIds)
+                .andOperator(
+                        Criteria.where("startTime").lt(windowEnd),
+                        Criteria.where("endTime").gt(windowStart)
+                ))
+                .with(Sort.by("roomId", "startTime"))
+                .cursorBatchSize(STREAM_CURSOR_BATCH_SIZE);
+        query.fields().include("roomId", "startTime", "endTime").exclude("_id");
+        List<Booking> bookings = mongoTemplate.find(query, Booking.class);
+
+        log.debug("Computing free slots for {} rooms from {} bookings between {} and {}",
+                bookableRoomIds.size(), bookings.size(), windowStart, windowEnd);
+        return FreeSlotFinder.findFreeSlots(bookableRoomIds, bookings, windowStart, windowEnd, minDuration);
+    }
+
+    private boolean existsOverlappingBooking(Integer roomId, LocalDateTime startTime, LocalDateTime endTime) {
         Query query = new Query();
         query.addCriteria(Criteria.where("roomId").is(roomId)
                 .andOperator(
                         Criteria.where("endTime").gt(startTime),
                         Criteria.where("startTime").lt(endTime)
                 ));
-        boolean available = mongoTemplate.find(query, Booking.class).isEmpty();
-        log.debug("Room availability check for room ID {}: {}", roomId, available ? "Available" : "Not Available");
-        return available;
+        // Project only the indexed fields (and no _id) so the roomId_startTime_endTime index covers the query
+        query.fields().include("roomId", "startTime", "endTime").exclude("_id");
+        return mongoTemplate.findOne(query, Booking.class) != null;
+    }
+
+    // Returns the saved booking, or null if the slot overlaps an existing booking.
+    // The slot is claimed before anything is written; the claim and the outbox entry, if any, are undone if the save fails.
+    private Booking reserve(BookingRequest bookingRequest, Function<Booking, OutboxEvent> outboxWriter) {
+        Booking booking = Booking.builder()
+                .id(new ObjectId().toHexString())
+                .userId(bookingRequest.userId())
+                .roomId(bookingRequest.roomId())
+                .startTime(bookingRequest.startTime())
+                .endTime(bookingRequest.endTime())
+                .purpose(bookingRequest.purpose())
+                .build();
+        String claimId = roomReservations.claim(booking.getRoomId(), booking.getId(), booking.getStartTime(), booking.getEndTime());
+        if (claimId == null) {
+            return null;
+        }
+        OutboxEvent outboxEvent = null;
+        try {
+            if (outboxWriter != null) {
+                outboxEvent = outboxWriter.apply(booking);
+            }
+            return bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            if (outboxEvent != null) {
+                outboxEventRepository.deleteById(outboxEvent.getId());
+            }
+            roomReservations.releaseClaim(booking.getRoomId(), claimId);
+            throw e;
+        }
     }
 
     private BookingResponse mapToBookingResponse(Booking booking) {
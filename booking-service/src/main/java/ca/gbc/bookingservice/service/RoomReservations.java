@@ -0,0 +1,140 @@
+package ca.gbc.bookingservice.service;
+
+import ca.gbc.bookingservice.model.Booking;
+import ca.gbc.bookingservice.model.RoomSchedule;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Enforces the no-overlap rule in Mongo, so it holds across booking-service replicas. Each room
+ * has one {@link RoomSchedule} document per day, and a slot is claimed with a single conditional
+ * update per day it touches that only matches while no slot of that day overlaps it. Mongo applies
+ * updates to one document atomically, and two overlapping slots always share a day, so of two
+ * overlapping claims from any replicas exactly one succeeds. Keeping a document per day bounds its
+ * size and lets claims for different days of a room proceed without contending.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomReservations {
+
+    private static final String MIGRATIONS = "booking_migrations";
+    private static final String BACKFILL_MIGRATION = "room_day_schedule_backfill_v1";
+    // One schedule per room, replaced by the day schedules
+    private static final String LEGACY_SCHEDULES = "room_schedule";
+
+    private final MongoTemplate mongoTemplate;
+
+    // Returns the claim id, or null if the slot overlaps another booking's slot in the room
+    public String claim(Integer roomId, String bookingId, LocalDateTime startTime, LocalDateTime endTime) {
+        Criteria overlapping = Criteria.where("startTime").lt(endTime).and("endTime").gt(startTime).and("bookingId").ne(bookingId);
+        String claimId = new ObjectId().toHexString();
+        RoomSchedule.Slot slot = new RoomSchedule.Slot(bookingId, claimId, startTime, endTime);
+        List<LocalDate> days = daysOf(startTime, endTime);
+        for (int i = 0; i < days.size(); i++) {
+            Query free = Query.query(Criteria.where("_id").is(RoomSchedule.idOf(roomId, days.get(i)))
+                    .and("slots").not().elemMatch(overlapping));
+            if (!add(free, roomId, days.get(i), slot)) {
+                if (i > 0) {
+                    releaseClaim(roomId, claimId);
+                }
+                return null;
+            }
+        }
+        return claimId;
+    }
+
+    // Drops one claim, e.g. when the booking it was made for could not be saved
+    public void releaseClaim(Integer roomId, String claimId) {
+        pull(Criteria.where("roomId").is(roomId).and("slots.claimId").is(claimId), new Document("claimId", claimId));
+    }
+
+    // Drops the booking's slots in the room, except the one claimed by keepClaimId (if any)
+    public void release(Integer roomId, String bookingId, String keepClaimId) {
+        Document slot = new Document("bookingId", bookingId);
+        if (keepClaimId != null) {
+            slot.append("claimId", new Document("$ne", keepClaimId));
+        }
+        pull(Criteria.where("roomId").is(roomId).and("slots.bookingId").is(bookingId), slot);
+    }
+
+    // One-off: bookings saved before the day schedules existed get their slots, then the room schedules they replace are dropped
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (mongoTemplate.exists(Query.query(Criteria.where("_id").is(BACKFILL_MIGRATION)), MIGRATIONS)) {
+            return;
+        }
+        Query query = new Query();
+        query.fields().include("roomId", "startTime", "endTime");
+        long added = 0;
+        try (Stream<Booking> bookings = mongoTemplate.stream(query, Booking.class)) {
+            for (Booking booking : (Iterable<Booking>) bookings::iterator) {
+                if (booking.getRoomId() != null && booking.getStartTime() != null && booking.getEndTime() != null
+                        && backfill(booking)) {
+                    added++;
+                }
+            }
+        }
+        mongoTemplate.dropCollection(LEGACY_SCHEDULES);
+        mongoTemplate.save(new Document("_id", BACKFILL_MIGRATION).append("appliedAt", Instant.now()), MIGRATIONS);
+        log.info("Added {} existing bookings to the room day schedules", added);
+    }
+
+    // Unconditional, as the booking is already saved; a day that has the booking's slot is left alone
+    private boolean backfill(Booking booking) {
+        RoomSchedule.Slot slot = new RoomSchedule.Slot(booking.getId(), new ObjectId().toHexString(),
+                booking.getStartTime(), booking.getEndTime());
+        boolean added = false;
+        for (LocalDate day : daysOf(booking.getStartTime(), booking.getEndTime())) {
+            Query missing = Query.query(Criteria.where("_id").is(RoomSchedule.idOf(booking.getRoomId(), day))
+                    .and("slots.bookingId").ne(booking.getId()));
+            added |= add(missing, booking.getRoomId(), day, slot);
+        }
+        // A booking deleted after it was streamed may have released its slots before they were added here
+        if (added && !mongoTemplate.exists(Query.query(Criteria.where("_id").is(booking.getId())), Booking.class)) {
+            release(booking.getRoomId(), booking.getId(), null);
+            return false;
+        }
+        return added;
+    }
+
+    // Adds the slot to the day's schedule if the schedule matches the query, creating the schedule when the day has none yet
+    private boolean add(Query query, Integer roomId, LocalDate day, RoomSchedule.Slot slot) {
+        Update update = new Update().push("slots", slot).setOnInsert("roomId", roomId).setOnInsert("day", day);
+        try {
+            UpdateResult result = mongoTemplate.upsert(query, update, RoomSchedule.class);
+            return result.getModifiedCount() == 1 || result.getUpsertedId() != null;
+        } catch (DuplicateKeyException e) {
+            // The schedule exists but did not match, or another claim created it a moment ago; only the first leaves room
+            return mongoTemplate.updateFirst(query, update, RoomSchedule.class).getModifiedCount() == 1;
+        }
+    }
+
+    // Every day the slot touches; the end time is exclusive
+    private static List<LocalDate> daysOf(LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDate first = startTime.toLocalDate();
+        LocalDate last = endTime.isAfter(startTime) ? endTime.minusNanos(1).toLocalDate() : first;
+        return first.datesUntil(last.plusDays(1)).toList();
+    }
+
+    private void pull(Criteria schedules, Document slot) {
+        mongoTemplate.updateMulti(Query.query(schedules), new Update().pull("slots", slot), RoomSchedule.class);
+    }
+}
@@ -0,0 +1,203 @@
+package ca.gbc.bookingservice;
+
+import ca.gbc.bookingservice.client.RoomClient;
+import ca.gbc.bookingservice.client.UserClient;
+import ca.gbc.bookingservice.dto.BookingRequest;
+import ca.gbc.bookingservice.dto.BookingResponse;
+import ca.gbc.bookingservice.dto.RoomSummary;
+import ca.gbc.bookingservice.event.BookingEvent;
+import ca.gbc.bookingservice.model.OutboxEvent;
+import ca.gbc.bookingservice.model.RoomSchedule;
+import ca.gbc.bookingservice.repository.BookingRepository;
+import ca.gbc.bookingservice.repository.OutboxEventRepository;
+import ca.gbc.bookingservice.service.BookingOutboxRelay;
+import ca.gbc.bookingservice.service.BookingService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {"booking.outbox.relay-interval-ms=3600000", "booking.outbox.max-attempts=3"})
+@EmbeddedKafka(partitions = 1, topics = "booking", bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+@Import(TestcontainersConfiguration.class)
+class BookingOutboxRelayTests {
+
+	@MockBean
+	private RoomClient roomClient;
+
+	@MockBean
+	private UserClient userClient;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private BookingOutboxRelay bookingOutboxRelay;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@SpyBean
+	private KafkaTemplate<String, BookingEvent> kafkaTemplate;
+
+	@BeforeEach
+	void setUp() {
+		bookingRepository.deleteAll();
+		outboxEventRepository.deleteAll();
+		mongoTemplate.remove(new Query(), RoomSchedule.class);
+	}
+
+	@Test
+	void createEventBooking_PublishesThroughOutbox() {
+		when(roomClient.getRoomSummary(201)).thenReturn(new RoomSummary(201, true, true, 50));
+
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		BookingResponse booking = bookingService.createEventBooking(
+				new BookingRequest(37, 201, start, start.plusHours(2), "Outbox Workshop"));
+		assertNotNull(booking.id());
+
+		// Nothing is published on the request thread, the entry waits in the outbox
+		List<OutboxEvent> pending = outboxEventRepository.findAll();
+		assertEquals(1, pending.size());
+		assertEquals(OutboxEvent.Status.PENDING, pending.get(0).getStatus());
+		assertEquals(booking.id(), pending.get(0).getBookingId());
+
+		assertEquals(1, bookingOutboxRelay.publishBatch());
+
+		OutboxEvent sent = outboxEventRepository.findById(pending.get(0).getId()).orElseThrow();
+		assertEquals(OutboxEvent.Status.SENT, sent.getStatus());
+		assertNotNull(sent.getSentAt());
+		assertEquals(0, bookingOutboxRelay.publishBatch());
+
+		Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("outbox-test", "false", embeddedKafkaBroker);
+		consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+		try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+				new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+			embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, "booking");
+			ConsumerRecord<String, String> record = KafkaTestUtils.getSingleRecord(consumer, "booking", Duration.ofSeconds(10));
+			assertTrue(record.value().contains(booking.id()));
+			assertTrue(record.value().contains("Outbox Workshop"));
+		}
+	}
+
+	@Test
+	void publishBatch_DiscardsEntriesWhoseBookingWasNeverSaved() {
+		outboxEventRepository.save(OutboxEvent.builder()
+				.topic("booking")
+				.bookingId("000000000000000000000000")
+				.status(OutboxEvent.Status.PENDING)
+				.createdAt(Instant.now().minus(Duration.ofHours(1)))
+				.build());
+
+		assertEquals(1, bookingOutboxRelay.publishBatch());
+		assertEquals(OutboxEvent.Status.DISCARDED, outboxEventRepository.findAll().get(0).getStatus());
+	}
+
+	@Test
+	void publishBatch_RetriesAFailedEntryBehindDueOnesUntilItRunsOutOfAttempts() {
+		when(roomClient.getRoomSummary(201)).thenReturn(new RoomSummary(201, true, true, 50));
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		BookingResponse failing = bookingService.createEventBooking(
+				new BookingRequest(37, 201, start, start.plusHours(1), "Failing Workshop"));
+		doThrow(new KafkaException("Broker unavailable")).when(kafkaTemplate).send(eq("booking"),
+				argThat((BookingEvent event) -> event != null && failing.id().equals(event.getBookingId())));
+
+		BookingResponse second = bookingService.createEventBooking(
+				new BookingRequest(37, 201, start.plusHours(2), start.plusHours(3), "Second Workshop"));
+		assertEquals(1, bookingOutboxRelay.publishBatch());
+		OutboxEvent retried = entryFor(failing.id());
+		assertEquals(OutboxEvent.Status.PENDING, retried.getStatus());
+		assertEquals(1, retried.getAttempts());
+		assertTrue(retried.getNextAttemptAt().isAfter(Instant.now()));
+		assertNull(retried.getClaimedBy());
+		assertEquals(OutboxEvent.Status.SENT, entryFor(second.id()).getStatus());
+
+		// While the failed entry backs off, newer entries are not held up behind it
+		BookingResponse third = bookingService.createEventBooking(
+				new BookingRequest(37, 201, start.plusHours(4), start.plusHours(5), "Third Workshop"));
+		assertEquals(1, bookingOutboxRelay.publishBatch());
+		assertEquals(OutboxEvent.Status.SENT, entryFor(third.id()).getStatus());
+		assertEquals(1, entryFor(failing.id()).getAttempts());
+
+		makeDue(failing.id());
+		assertEquals(0, bookingOutboxRelay.publishBatch());
+		assertEquals(2, entryFor(failing.id()).getAttempts());
+		makeDue(failing.id());
+		assertEquals(0, bookingOutboxRelay.publishBatch());
+		OutboxEvent exhausted = entryFor(failing.id());
+		assertEquals(OutboxEvent.Status.FAILED, exhausted.getStatus());
+		assertEquals(3, exhausted.getAttempts());
+
+		makeDue(failing.id());
+		assertEquals(0, bookingOutboxRelay.publishBatch());
+	}
+
+	@Test
+	void publishBatch_LeavesEntriesClaimedByAnotherRunUntilTheLeaseLapses() {
+		when(roomClient.getRoomSummary(201)).thenReturn(new RoomSummary(201, true, true, 50));
+		LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+		BookingResponse booking = bookingService.createEventBooking(
+				new BookingRequest(37, 201, start, start.plusHours(1), "Claimed Workshop"));
+		String entryId = entryFor(booking.id()).getId();
+
+		mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(entryId)), new Update()
+				.set("status", OutboxEvent.Status.IN_FLIGHT)
+				.set("claimedBy", "other-replica")
+				.set("leaseExpiresAt", Instant.now().plus(Duration.ofMinutes(1))), OutboxEvent.class);
+		assertEquals(0, bookingOutboxRelay.publishBatch());
+		assertEquals("other-replica", entryFor(booking.id()).getClaimedBy());
+
+		// The other run died holding it
+		mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(entryId)),
+				Update.update("leaseExpiresAt", Instant.now().minusSeconds(1)), OutboxEvent.class);
+		assertEquals(1, bookingOutboxRelay.publishBatch());
+		assertEquals(OutboxEvent.Status.SENT, entryFor(booking.id()).getStatus());
+	}
+
+	private OutboxEvent entryFor(String bookingId) {
+		return mongoTemplate.findOne(Query.query(Criteria.where("bookingId").is(bookingId)), OutboxEvent.class);
+	}
+
+	private void makeDue(String bookingId) {
+		mongoTemplate.updateFirst(Query.query(Criteria.where("bookingId").is(bookingId)),
+				Update.update("nextAttemptAt", Instant.now().minusSeconds(1)), OutboxEvent.class);
+	}
+}
@@ -1,19 +1,47 @@
 package ca.gbc.bookingservice;
 
+import ca.gbc.bookingservice.catalog.RoomCatalogReplica;
 import ca.gbc.bookingservice.client.RoomClient;
 import ca.gbc.bookingservice.client.UserClient;
 import ca.gbc.bookingservice.dto.BookingRequest;
+import ca.gbc.bookingservice.dto.BookingResponse;
+import ca.gbc.bookingservice.dto.RoomFreeSlots;
+import ca.gbc.bookingservice.dto.RoomSummary;
+import ca.gbc.bookingservice.dto.TimeSlot;
+import ca.gbc.bookingservice.event.RoomChangedEvent;
+import ca.gbc.bookingservice.index.RoomBookingIndex;
 import ca.gbc.bookingservice.model.Booking;
+import ca.gbc.bookingservice.model.RoomSchedule;
 import ca.gbc.bookingservice.repository.BookingRepository;
+import ca.gbc.bookingservice.repository.OutboxEventRepository;
 import ca.gbc.bookingservice.service.BookingService;
+import ca.gbc.bookingservice.service.BookingServiceImpl;
+import ca.gbc.bookingservice.service.RoomReservations;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.restassured.http.ContentType;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.Timeout;
+import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.junit.jupiter.api.*;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -30,9 +58,17 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -60,28 +96,46 @@ class BookingServiceIntegrationTest {
 	@Autowired
 	private MongoTemplate mongoTemplate;
 
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private RoomReservations roomReservations;
+
+	@Autowired
+	private RoomBookingIndex roomBookingIndex;
+
+	@Autowired
+	private RoomCatalogReplica roomCatalogReplica;
+
+	@Autowired
+	private PoolingHttpClientConnectionManager internalConnectionManager;
+
+	@Autowired
+	private CloseableHttpClient internalHttpClient;
+
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
 		RestAssured.port = port;
 		RestAssured.baseURI = "http://localhost";
 		bookingRepository.deleteAll();
+		mongoTemplate.remove(new Query(), RoomSchedule.class);
 	}
 
 	@Test
 	void mockSetupTest() {
-		when(roomClient.getRoomAvailability(101)).thenReturn(true);
+		when(roomClient.getRoomSummary(101)).thenReturn(new RoomSummary(101, true, true, 50));
 
 		// Verify that the mock works as expected
-		boolean isAvailable = roomClient.getRoomAvailability(101);
+		boolean isAvailable = roomClient.getRoomSummary(101).availability();
 		assertTrue(isAvailable);
 	}
 
 	@Test
 	void createBookingTest() {
 		// Arrange: Mock RoomClient responses for room existence and availability
-		when(roomClient.checkRoomExists(101)).thenReturn(true);  // Mock room exists
-		when(roomClient.getRoomAvailability(101)).thenReturn(true);  // Mock room is available
+		when(roomClient.getRoomSummary(101)).thenReturn(new RoomSummary(101, true, true, 50));  // Mock room is available
 
 		// Booking request payload
 		String createBookingRequest = """
@@ -107,8 +161,7 @@ class BookingServiceIntegrationTest {
 				.body("purpose", equalTo("Workshop"));
 
 		// Verify that the room existence and availability checks were called
-		verify(roomClient, times(1)).checkRoomExists(101);
-		verify(roomClient, times(1)).getRoomAvailability(101);
+		verify(roomClient, times(1)).getRoomSummary(101);
 	}
 
 
@@ -122,8 +175,7 @@ class BookingServiceIntegrationTest {
 				"Conference"
 		);
 
-		when(roomClient.checkRoomExists(103)).thenReturn(true);
-		when(roomClient.getRoomAvailability(103)).thenReturn(false);
+		when(roomClient.getRoomSummary(103)).thenReturn(new RoomSummary(103, true, false, 50));
 
 		given()
 				.contentType(MediaType.APPLICATION_JSON_VALUE)
@@ -134,8 +186,7 @@ class BookingServiceIntegrationTest {
 				.statusCode(HttpStatus.CONFLICT.value())
 				.body(equalTo("Room is under maintenance and cannot be booked."));
 
-		verify(roomClient, times(1)).checkRoomExists(103);
-		verify(roomClient, times(1)).getRoomAvailability(103);
+		verify(roomClient, times(1)).getRoomSummary(103);
 	}
 
 	@Test
@@ -185,8 +236,7 @@ class BookingServiceIntegrationTest {
         """;
 
 		// Mock RoomClient for room existence and availability checks
-		when(roomClient.checkRoomExists(101)).thenReturn(true); // Room exists
-		when(roomClient.getRoomAvailability(101)).thenReturn(true); // Room is available
+		when(roomClient.getRoomSummary(101)).thenReturn(new RoomSummary(101, true, true, 50)); // Room is available
 
 		// Step 1: Create a booking and extract its ID
 		String bookingId = given()
@@ -224,9 +274,437 @@ class BookingServiceIntegrationTest {
 				.body("roomId", equalTo(101));
 
 		// Verify that room availability was checked
-		verify(roomClient, times(1)).checkRoomExists(101); // Confirm existence only once
-		verify(roomClient, times(2)).getRoomAvailability(101); // Once during creation, once during update
+		verify(roomClient, times(2)).getRoomSummary(101); // Once during creation, once during update
+	}
+
+
+	@Test
+	void createBooking_OverlappingTimeRejected() {
+		when(roomClient.getRoomSummary(104)).thenReturn(new RoomSummary(104, true, true, 50));
+
+		String firstBooking = """
+				{
+				  "userId": 37,
+				  "roomId": 104,
+				  "startTime": "2024-11-12T10:00:00",
+				  "endTime": "2024-11-12T12:00:00",
+				  "purpose": "Workshop"
+				}
+				""";
+		String overlappingBooking = """
+				{
+				  "userId": 38,
+				  "roomId": 104,
+				  "startTime": "2024-11-12T11:00:00",
+				  "endTime": "2024-11-12T13:00:00",
+				  "purpose": "Meeting"
+				}
+				""";
+
+		given()
+				.contentType("application/json")
+				.body(firstBooking)
+				.when()
+				.post("/api/bookings")
+				.then()
+				.statusCode(201);
+
+		given()
+				.contentType("application/json")
+				.body(overlappingBooking)
+				.when()
+				.post("/api/bookings")
+				.then()
+				.statusCode(HttpStatus.CONFLICT.value())
+				.body(equalTo("Room is not available for the requested time."));
+	}
+
+	@Test
+	void roomBookingIndex_TracksRepositoryChanges() {
+		LocalDateTime start = LocalDateTime.of(2024, 11, 20, 9, 0);
+		Booking booking = new Booking("idx-1", 37, 105, start, start.plusHours(2), "Lecture");
+		bookingRepository.save(booking);
+
+		assertTrue(roomBookingIndex.hasOverlap(105, start.plusHours(1), start.plusHours(3)));
+		assertFalse(roomBookingIndex.hasOverlap(105, start.plusHours(2), start.plusHours(3)));
+		assertTrue(roomBookingIndex.verifyConsistency());
+
+		bookingRepository.deleteById("idx-1");
+
+		assertFalse(roomBookingIndex.hasOverlap(105, start.plusHours(1), start.plusHours(3)));
+		assertTrue(roomBookingIndex.verifyConsistency());
+	}
+
+	@Test
+	void roomBookingIndex_RepairsOnlyTheBookingsThatDrifted() {
+		LocalDateTime start = LocalDateTime.of(2024, 11, 21, 9, 0);
+		bookingRepository.save(new Booking("idx-2", 37, 112, start, start.plusHours(1), "Lecture"));
+		// Written behind the index's back, the way another replica's write looks to this instance
+		mongoTemplate.getCollection("booking").insertOne(new Document("_id", "idx-3")
+				.append("userId", 37).append("roomId", 112)
+				.append("startTime", toDate(start.plusHours(2))).append("endTime", toDate(start.plusHours(3)))
+				.append("purpose", "Seminar").append("version", 0L));
+		assertFalse(roomBookingIndex.hasOverlap(112, start.plusHours(2), start.plusHours(3)));
+
+		assertFalse(roomBookingIndex.verifyConsistency());
+		assertTrue(roomBookingIndex.hasOverlap(112, start.plusHours(2), start.plusHours(3)));
+		assertTrue(roomBookingIndex.hasOverlap(112, start, start.plusHours(1)));
+		assertTrue(roomBookingIndex.verifyConsistency());
+	}
+
+	@Test
+	void createBooking_ConcurrentOverlappingRequestsNeverDoubleBook() throws Exception {
+		when(roomClient.getRoomSummary(106)).thenReturn(new RoomSummary(106, true, true, 50));
+
+		// A second replica: same Mongo, but its own in-memory index that never sees the first one's writes
+		RoomBookingIndex replicaIndex = new RoomBookingIndex(mongoTemplate, new SimpleMeterRegistry());
+		replicaIndex.load();
+		BookingService replica = new BookingServiceImpl(bookingRepository, roomCatalogReplica, mongoTemplate,
+				replicaIndex, new RoomReservations(mongoTemplate), outboxEventRepository);
+		List<BookingService> instances = List.of(bookingService, replica);
+
+		// 3000 one-hour requests starting every 30 minutes, so each one overlaps its neighbours, split over both instances
+		LocalDateTime base = LocalDateTime.of(2024, 12, 2, 8, 0);
+		int requests = 3000;
+		List<Future<BookingResponse>> results = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < requests; i++) {
+				LocalDateTime start = base.plusMinutes(30L * (i % 40));
+				BookingRequest request = new BookingRequest(37, 106, start, start.plusHours(1), "Stress " + i);
+				BookingService instance = instances.get(i % 2);
+				results.add(executor.submit(() -> instance.createBooking(request)));
+			}
+		}
+
+		long created = 0;
+		for (Future<BookingResponse> result : results) {
+			if (result.get().id() != null) {
+				created++;
+			}
+		}
+
+		List<Booking> stored = bookingRepository.findAll().stream()
+				.filter(booking -> booking.getRoomId() == 106)
+				.sorted(Comparator.comparing(Booking::getStartTime))
+				.toList();
+
+		assertTrue(created > 0);
+		assertEquals(created, stored.size());
+		for (int i = 1; i < stored.size(); i++) {
+			assertTrue(!stored.get(i).getStartTime().isBefore(stored.get(i - 1).getEndTime()),
+					"Double booking between " + stored.get(i - 1).getId() + " and " + stored.get(i).getId());
+		}
+
+		// A booking deleted through one instance frees the slot for the other
+		Booking first = stored.get(0);
+		assertTrue(bookingService.deleteBooking(first.getId()));
+		assertNotNull(replica.createBooking(new BookingRequest(38, 106, first.getStartTime(), first.getEndTime(), "Rebooked")).id());
+		assertNull(bookingService.createBooking(new BookingRequest(39, 106, first.getStartTime(), first.getEndTime(), "Too late")).id());
+	}
+
+	@Test
+	void updateBooking_MovesTheClaimedSlot() {
+		when(roomClient.getRoomSummary(111)).thenReturn(new RoomSummary(111, true, true, 50));
+		LocalDateTime start = LocalDateTime.of(2024, 12, 9, 9, 0);
+		BookingResponse booking = bookingService.createBooking(new BookingRequest(37, 111, start, start.plusHours(2), "Planning"));
+		assertNotNull(booking.id());
+
+		// Moving into a window that overlaps its own slot is allowed, and the old slot is given up
+		assertNotNull(bookingService.updateBooking(booking.id(), new BookingRequest(37, 111, start.plusHours(1), start.plusHours(3), "Planning")));
+		assertNotNull(bookingService.createBooking(new BookingRequest(38, 111, start, start.plusHours(1), "Standup")).id());
+		assertNull(bookingService.createBooking(new BookingRequest(39, 111, start.plusHours(2), start.plusHours(4), "Review")).id());
+	}
+
+	@Test
+	void createBooking_SlotAcrossMidnightIsClaimedOnBothDays() {
+		when(roomClient.getRoomSummary(113)).thenReturn(new RoomSummary(113, true, true, 50));
+		LocalDateTime midnight = LocalDateTime.of(2024, 12, 11, 0, 0);
+		BookingResponse overnight = bookingService.createBooking(new BookingRequest(37, 113, midnight.minusHours(2), midnight.plusHours(2), "Hackathon"));
+		assertNotNull(overnight.id());
+
+		assertEquals(2, mongoTemplate.count(Query.query(Criteria.where("roomId").is(113)), RoomSchedule.class));
+		assertNull(bookingService.createBooking(new BookingRequest(38, 113, midnight.plusHours(1), midnight.plusHours(3), "Breakfast")).id());
+		assertNotNull(bookingService.createBooking(new BookingRequest(38, 113, midnight.minusHours(4), midnight.minusHours(2), "Setup")).id());
+
+		// Deleting it frees the slot on the second day as well
+		assertTrue(bookingService.deleteBooking(overnight.id()));
+		assertNotNull(bookingService.createBooking(new BookingRequest(38, 113, midnight.plusHours(1), midnight.plusHours(3), "Breakfast")).id());
+	}
+
+	@Test
+	void roomReservations_BackfillRunsOnceForBookingsThatStillExist() {
+		when(roomClient.getRoomSummary(114)).thenReturn(new RoomSummary(114, true, true, 50));
+		LocalDateTime start = LocalDateTime.of(2024, 12, 16, 9, 0);
+		// Saved before the day schedules existed, so no slot was claimed for them
+		bookingRepository.save(new Booking("legacy-1", 37, 114, start, start.plusHours(2), "Legacy"));
+		Query migration = Query.query(Criteria.where("_id").is("room_day_schedule_backfill_v1"));
+		mongoTemplate.remove(migration, "booking_migrations");
+
+		roomReservations.backfill();
+		assertTrue(mongoTemplate.exists(migration, "booking_migrations"));
+		assertNull(bookingService.createBooking(new BookingRequest(38, 114, start.plusHours(1), start.plusHours(3), "Overlap")).id());
+
+		// Later startups skip it
+		mongoTemplate.remove(new Query(), RoomSchedule.class);
+		roomReservations.backfill();
+		assertEquals(0, mongoTemplate.count(Query.query(Criteria.where("roomId").is(114)), RoomSchedule.class));
 	}
 
+	@Test
+	void getBookingsPage_WalksAllBookingsAndStreamMatches() {
+		LocalDateTime base = LocalDateTime.now().plusDays(20).withNano(0);
+		for (int i = 0; i < 5; i++) {
+			bookingRepository.save(new Booking(null, 37, 107, base.plusHours(i), base.plusHours(i).plusMinutes(30), "Page " + i));
+		}
+
+		List<String> pagedIds = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			var request = given().queryParam("size", 2);
+			if (cursor != null) {
+				request.queryParam("after", cursor);
+			}
+			var page = request.when().get("/api/bookings/page").then().statusCode(200).extract().jsonPath();
+			pagedIds.addAll(page.getList("items.id", String.class));
+			cursor = page.getString("nextCursor");
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(bookingRepository.findAll().stream().map(Booking::getId).sorted().toList(), pagedIds);
+
+		String ndjson = given()
+				.when()
+				.get("/api/bookings/stream")
+				.then()
+				.statusCode(200)
+				.contentType("application/x-ndjson")
+				.extract()
+				.asString();
+		assertEquals(5, ndjson.lines().count());
+
+		given()
+				.queryParam("after", "not-an-id")
+				.when()
+				.get("/api/bookings/page")
+				.then()
+				.statusCode(400);
+	}
+
+	@Test
+	void findFreeSlots_ReturnsGapsBetweenBookings() {
+		LocalDateTime day = LocalDateTime.now().plusDays(30).withHour(0).withMinute(0).withSecond(0).withNano(0);
+		when(roomClient.getRoomSummaries(List.of(108, 109, 110))).thenReturn(List.of(
+				new RoomSummary(108, true, true, 20),
+				new RoomSummary(109, true, true, 20),
+				new RoomSummary(110, true, false, 20)));
+		bookingRepository.save(new Booking(null, 37, 108, day.plusHours(9), day.plusHours(10), "Standup"));
+		bookingRepository.save(new Booking(null, 37, 108, day.plusHours(10).plusMinutes(15), day.plusHours(12), "Workshop"));
+		bookingRepository.save(new Booking(null, 37, 108, day.plusHours(11), day.plusHours(13), "Overlapping lunch"));
+
+		given()
+				.queryParam("startTime", day.plusHours(8).toString())
+				.queryParam("endTime", day.plusHours(18).toString())
+				.queryParam("minDuration", "PT30M")
+				.queryParam("roomIds", "108,109,110")
+				.when()
+				.get("/api/bookings/free-slots")
+				.then()
+				.statusCode(200)
+				.body("size()", equalTo(2))   // Room 110 is under maintenance
+				.body("[0].roomId", equalTo(108))
+				.body("[0].freeSlots.size()", equalTo(2))   // The 15 minute gap is shorter than the minimum
+				.body("[0].freeSlots[0].startTime", startsWith(day.plusHours(8).toString()))
+				.body("[0].freeSlots[0].endTime", startsWith(day.plusHours(9).toString()))
+				.body("[0].freeSlots[1].startTime", startsWith(day.plusHours(13).toString()))
+				.body("[0].freeSlots[1].endTime", startsWith(day.plusHours(18).toString()))
+				.body("[1].roomId", equalTo(109))
+				.body("[1].freeSlots.size()", equalTo(1));
+
+		given()
+				.queryParam("startTime", day.plusHours(18).toString())
+				.queryParam("endTime", day.plusHours(8).toString())
+				.when()
+				.get("/api/bookings/free-slots")
+				.then()
+				.statusCode(400);
+	}
 
-}
\ No newline at end of file
+	@Test
+	void findFreeSlots_HundredsOfRoomsOverAMonth() {
+		int rooms = 300;
+		int days = 30;
+		LocalDateTime windowStart = LocalDateTime.now().plusDays(60).withHour(0).withMinute(0).withSecond(0).withNano(0);
+		LocalDateTime windowEnd = windowStart.plusDays(days);
+
+		List<RoomSummary> summaries = new ArrayList<>();
+		List<Booking> seeded = new ArrayList<>();
+		for (int room = 1000; room < 1000 + rooms; room++) {
+			summaries.add(new RoomSummary(room, true, true, 40));
+			for (int day = 0; day < days; day++) {
+				LocalDateTime date = windowStart.plusDays(day).plusHours(room % 4);
+				seeded.add(new Booking(null, 37, room, date.plusHours(8), date.plusHours(9).plusMinutes(30), "Morning"));
+				seeded.add(new Booking(null, 37, room, date.plusHours(11), date.plusHours(12), "Noon"));
+				seeded.add(new Booking(null, 37, room, date.plusHours(15), date.plusHours(17), "Afternoon"));
+			}
+		}
+		summaries.add(new RoomSummary(2000, true, false, 40));
+		mongoTemplate.insertAll(seeded);
+		when(roomClient.getAllRoomSummaries()).thenReturn(summaries);
+
+		List<RoomFreeSlots> result = bookingService.findFreeSlots(windowStart, windowEnd, Duration.ZERO, null);
+
+		assertEquals(rooms, result.size());
+		Duration booked = Duration.ofMinutes(90 + 60 + 120);
+		for (RoomFreeSlots roomSlots : result) {
+			Duration free = Duration.ZERO;
+			LocalDateTime previousEnd = windowStart;
+			for (TimeSlot slot : roomSlots.freeSlots()) {
+				assertTrue(!slot.startTime().isBefore(previousEnd), "Free slots out of order for room " + roomSlots.roomId());
+				free = free.plus(Duration.between(slot.startTime(), slot.endTime()));
+				previousEnd = slot.endTime();
+			}
+			// Free and booked time together must cover the whole window exactly
+			assertEquals(Duration.between(windowStart, windowEnd), free.plus(booked.multipliedBy(days)),
+					"Free time does not add up for room " + roomSlots.roomId());
+		}
+
+		when(roomClient.getRoomSummaries(List.of(1000))).thenReturn(List.of(summaries.get(0)));
+		List<RoomFreeSlots> longSlots = bookingService.findFreeSlots(windowStart, windowEnd, Duration.ofHours(3), List.of(1000));
+		assertTrue(longSlots.get(0).freeSlots().stream()
+				.allMatch(slot -> Duration.between(slot.startTime(), slot.endTime()).compareTo(Duration.ofHours(3)) >= 0));
+	}
+
+	@Test
+	void createBooking_UsesLocalRoomCatalogWithoutCallingRoomService() {
+		roomCatalogReplica.apply("9101", new RoomChangedEvent(9101, "Replica Room", 40, true, List.of("Projector")));
+		LocalDateTime start = LocalDateTime.now().plusDays(40).withNano(0);
+
+		BookingResponse booked = bookingService.createBooking(new BookingRequest(37, 9101, start, start.plusHours(1), "Seminar"));
+		assertNotNull(booked.id());
+
+		// Maintenance arrives as a change event, the next booking is refused without asking room-service
+		roomCatalogReplica.apply("9101", new RoomChangedEvent(9101, "Replica Room", 40, false, List.of("Projector")));
+		BookingResponse refused = bookingService.createBooking(new BookingRequest(37, 9101, start.plusHours(2), start.plusHours(3), "Seminar"));
+		assertNull(refused.id());
+
+		// A deleted room is a tombstone on the topic
+		roomCatalogReplica.apply("9101", null);
+		assertFalse(roomCatalogReplica.getRoomSummary(9101).exists());
+
+		verify(roomClient, never()).getRoomSummary(9101);
+	}
+
+	@Test
+	void overlapQuery_IsCoveredByRoomTimeIndex() {
+		LocalDateTime base = LocalDateTime.now().plusDays(120).withNano(0);
+		List<Booking> seeded = new ArrayList<>();
+		for (int room = 3000; room < 3200; room++) {
+			for (int slot = 0; slot < 100; slot++) {
+				LocalDateTime start = base.plusHours(slot * 2L);
+				seeded.add(new Booking(null, room % 50, room, start, start.plusHours(1), "Seeded"));
+			}
+		}
+		mongoTemplate.insertAll(seeded);
+		// Same documents without any secondary index, to show what the query cost before
+		mongoTemplate.getCollection("booking_unindexed").drop();
+		mongoTemplate.getCollection("booking_unindexed")
+				.insertMany(mongoTemplate.getCollection("booking").find().into(new ArrayList<>()));
+
+		// The shape existsOverlappingBooking sends, for an interval that overlaps room 3100's booking at 22:00-23:00
+		Bson overlap = Filters.and(
+				Filters.eq("roomId", 3100),
+				Filters.lt("startTime", toDate(base.plusHours(22).plusMinutes(45))),
+				Filters.gt("endTime", toDate(base.plusHours(22).plusMinutes(15))));
+		Bson projection = Projections.fields(Projections.include("roomId", "startTime", "endTime"), Projections.excludeId());
+
+		Document before = mongoTemplate.getCollection("booking_unindexed").find(overlap).projection(projection).limit(1)
+				.explain(ExplainVerbosity.EXECUTION_STATS);
+		Document after = mongoTemplate.getCollection("booking").find(overlap).projection(projection).limit(1)
+				.explain(ExplainVerbosity.EXECUTION_STATS);
+
+		assertEquals(seeded.size(), stat(before.get("executionStats", Document.class), "totalDocsExamined"));
+		Document afterStats = after.get("executionStats", Document.class);
+		assertEquals(1, stat(afterStats, "nReturned"));
+		// Answered from the index alone: the matching booking was never fetched
+		assertEquals(0, stat(afterStats, "totalDocsExamined"));
+		List<String> stages = stages(after.get("queryPlanner", Document.class).get("winningPlan", Document.class));
+		assertTrue(stages.contains("IXSCAN"), stages::toString);
+		assertFalse(stages.contains("FETCH"), stages::toString);
+
+		assertTrue(bookingService.isRoomAvailable(3100, base.plusHours(21).plusMinutes(15), base.plusHours(21).plusMinutes(45)));
+		assertFalse(bookingService.isRoomAvailable(3100, base.plusHours(22).plusMinutes(15), base.plusHours(22).plusMinutes(45)));
+
+		Document byUser = mongoTemplate.getCollection("booking").find(Filters.eq("userId", 7))
+				.explain(ExplainVerbosity.EXECUTION_STATS).get("executionStats", Document.class);
+		assertEquals(stat(byUser, "nReturned"), stat(byUser, "totalDocsExamined"));
+
+		mongoTemplate.getCollection("booking_unindexed").drop();
+	}
+
+	@Test
+	void internalHttpClient_UsesConfiguredPoolSizesAndTimeouts(
+			@Value("${booking.http-client.max-connections}") int maxConnections,
+			@Value("${booking.http-client.max-connections-per-route}") int maxConnectionsPerRoute,
+			@Value("${booking.http-client.connect-timeout}") Duration connectTimeout,
+			@Value("${booking.http-client.read-timeout}") Duration readTimeout) {
+		assertEquals(maxConnections, internalConnectionManager.getMaxTotal());
+		assertEquals(maxConnectionsPerRoute, internalConnectionManager.getDefaultMaxPerRoute());
+
+		RequestConfig requestConfig = ((Configurable) internalHttpClient).getConfig();
+		assertEquals(Timeout.of(readTimeout), requestConfig.getResponseTimeout());
+		assertEquals(Timeout.of(connectTimeout), requestConfig.getConnectionRequestTimeout());
+	}
+
+	@Test
+	void userClient_CachesUserTypesUntilEvicted() {
+		UserClient downstream = mock(UserClient.class);
+		when(downstream.getUserType(1)).thenReturn("STUDENT");
+		try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+			context.register(CachingEnabled.class);
+			context.registerBean(CacheManager.class, () -> new CaffeineCacheManager("userTypes"));
+			context.registerBean(UserClient.class, () -> downstream);
+			context.refresh();
+			UserClient userClient = context.getBean(UserClient.class);
+
+			assertEquals("STUDENT", userClient.getUserType(1));
+			assertEquals("STUDENT", userClient.getUserType(1));
+			verify(downstream, times(1)).getUserType(1);
+
+			userClient.evictUserType(1);
+			assertEquals("STUDENT", userClient.getUserType(1));
+			verify(downstream, times(2)).getUserType(1);
+		}
+	}
+
+	// Spring Data stores LocalDateTime as a Date in the system time zone
+	private static Date toDate(LocalDateTime dateTime) {
+		return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+	}
+
+	private static int stat(Document executionStats, String name) {
+		return ((Number) executionStats.get(name)).intValue();
+	}
+
+	// Every stage of an explain plan, outermost first; newer servers nest the classic plan under queryPlan
+	private static List<String> stages(Document plan) {
+		List<String> stages = new ArrayList<>();
+		if (plan.containsKey("queryPlan")) {
+			return stages(plan.get("queryPlan", Document.class));
+		}
+		stages.add(plan.getString("stage"));
+		if (plan.containsKey("inputStage")) {
+			stages.addAll(stages(plan.get("inputStage", Document.class)));
+		}
+		for (Document input : plan.getList("inputStages", Document.class, List.of())) {
+			stages.addAll(stages(input));
+		}
+		return stages;
+	}
+
+	// Only the caching proxy, so the test sees the @Cacheable and @CacheEvict rules on UserClient itself
+	@EnableCaching
+	static class CachingEnabled {
+	}
+}
@@ -2,10 +2,12 @@ package ca.gbc.eventservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.kafka.annotation.EnableKafka;
 
 @SpringBootApplication
+@EnableCaching
 @EnableFeignClients
 @EnableKafka
 public class EventServiceApplication {
@@ -0,0 +1,64 @@
+package ca.gbc.eventservice.catalog;
+
+import ca.gbc.eventservice.dto.RoomSummary;
+import ca.gbc.eventservice.event.RoomChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.PartitionOffset;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local replica of room-service's catalog, fed from the compacted room-catalog topic. Every
+ * instance assigns itself the topic's single partition and reads it from offset 0 on each start,
+ * without a consumer group, so event validation can check a room's capacity and maintenance
+ * status without calling room-service.
+ */
+@Slf4j
+@Component
+public class RoomCatalogReplica {
+
+    private final Map<Integer, RoomSummary> rooms = new ConcurrentHashMap<>();
+
+    public RoomCatalogReplica(MeterRegistry meterRegistry) {
+        Gauge.builder("event.room-catalog.size", rooms, Map::size)
+                .description("Rooms held in the local room catalog replica")
+                .register(meterRegistry);
+    }
+
+    // Empty when the replica has not seen the room yet; callers then ask room-service
+    public Optional<RoomSummary> find(Integer roomId) {
+        return Optional.ofNullable(rooms.get(roomId));
+    }
+
+    @KafkaListener(
+            topicPartitions = @TopicPartition(topic = "${event.room-catalog.topic:room-catalog}",
+                    partitionOffsets = @PartitionOffset(partition = "0", initialOffset = "0")),
+            containerFactory = "roomCatalogListenerContainerFactory",
+            autoStartup = "${event.room-catalog.enabled:true}",
+            properties = {
+                    "spring.json.type.mapping=roomChanged:ca.gbc.eventservice.event.RoomChangedEvent"
+            })
+    public void onRoomChanged(List<ConsumerRecord<String, RoomChangedEvent>> records) {
+        records.forEach(record -> apply(record.key(), record.value()));
+        log.debug("Applied {} room changes, replica holds {} rooms", records.size(), rooms.size());
+    }
+
+    // A null event is a tombstone: the room was deleted
+    public void apply(String key, RoomChangedEvent event) {
+        Integer roomId = Integer.valueOf(key);
+        if (event == null) {
+            rooms.put(roomId, new RoomSummary(roomId, false, false, null));
+            return;
+        }
+        rooms.put(roomId, new RoomSummary(roomId, true, Boolean.TRUE.equals(event.getAvailability()), event.getCapacity()));
+    }
+}
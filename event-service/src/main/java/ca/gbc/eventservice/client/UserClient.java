@@ -1,5 +1,7 @@
 package ca.gbc.eventservice.client;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,5 +11,11 @@ public interface UserClient {
 
     // Retrieves the user's role based on userId
     @GetMapping("/api/users/{userId}/type")
+    @Cacheable(cacheNames = "userTypes", unless = "#result == null")
     String getUserType(@PathVariable("userId") Integer userId);
+
+    // Drops a cached user type, e.g. after the user's type was changed in user-service
+    @CacheEvict(cacheNames = "userTypes")
+    default void evictUserType(Integer userId) {
+    }
 }
@@ -0,0 +1,35 @@
+package ca.gbc.eventservice.config;
+
+import ca.gbc.eventservice.model.Event;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redelivered BookingEvents used to be caught by a unique index on bookingId, which an event
+ * update also writes. Index creation never drops an index, so remove that one where it was built.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventIndexCleanup {
+
+    private static final String BOOKING_ID_INDEX = "bookingId";
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropBookingIdIndex() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Event.class);
+        boolean present = indexOps.getIndexInfo().stream()
+                .anyMatch(index -> BOOKING_ID_INDEX.equals(index.getName()));
+        if (present) {
+            indexOps.dropIndex(BOOKING_ID_INDEX);
+            log.info("Dropped the unique {} index on events", BOOKING_ID_INDEX);
+        }
+    }
+}
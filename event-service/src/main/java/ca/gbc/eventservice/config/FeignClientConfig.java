@@ -0,0 +1,94 @@
+package ca.gbc.eventservice.config;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP client behind the Feign clients. Replaces OpenFeign's own hc5 setup
+ * (spring.cloud.openfeign.httpclient.hc5.enabled=false) so the pool is tuned the same way as
+ * the RestClient pools in the other services and reports the same metrics. Per-request
+ * connect and read timeouts come from spring.cloud.openfeign.client.config.default.
+ */
+@Configuration
+public class FeignClientConfig {
+
+    @Value("${event.http-client.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${event.http-client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${event.http-client.connect-timeout:3s}")
+    private Duration connectTimeout;
+
+    @Value("${event.http-client.keep-alive:15s}")
+    private Duration keepAlive;
+
+    @Value("${event.http-client.time-to-live:5m}")
+    private Duration timeToLive;
+
+    @Value("${event.http-client.http2:false}")
+    private boolean http2;
+
+    // max-connections-per-route applies to booking, room and user service separately
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager internalConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public MeterBinder internalConnectionPoolMetrics(PoolingHttpClientConnectionManager internalConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(internalConnectionManager, "internal");
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient internalHttpClient(PoolingHttpClientConnectionManager internalConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(internalConnectionManager)
+                // feign-hc5 copies this per request and overrides only the connect and response timeouts;
+                // without it a call on an exhausted pool waits HttpClient's 3 minute default for a connection
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    @Bean
+    public Client feignClient(CloseableHttpClient internalHttpClient) {
+        if (http2) {
+            return new Http2Client(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(connectTimeout)
+                    .build());
+        }
+        return new ApacheHttp5Client(internalHttpClient);
+    }
+}
@@ -0,0 +1,44 @@
+package ca.gbc.eventservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.Map;
+
+@Slf4j
+@Configuration
+public class KafkaConsumerConfig {
+
+    // Picked up by Boot's listener container factory. A failed batch is retried from its first
+    // offset with growing delays and never skipped, so a Mongo outage pauses consumption instead of dropping events.
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(@Value("${event.consumer.retry-max-interval-ms:30000}") long maxIntervalMs) {
+        ExponentialBackOff backOff = new ExponentialBackOff(1000L, 2.0);
+        backOff.setMaxInterval(maxIntervalMs);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(backOff);
+        errorHandler.setRetryListeners((record, ex, deliveryAttempt) ->
+                log.warn("Writing BookingEvent batch failed (attempt {}): {}", deliveryAttempt, ex.getMessage()));
+        return errorHandler;
+    }
+
+    // For the room catalog replica, which assigns itself the topic's partitions. Without a
+    // group.id nothing is committed and no consumer group is left behind when the instance stops.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> roomCatalogListenerContainerFactory(KafkaProperties kafkaProperties) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setBatchListener(true);
+        return factory;
+    }
+}
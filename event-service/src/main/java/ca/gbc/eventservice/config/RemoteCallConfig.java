@@ -0,0 +1,17 @@
+package ca.gbc.eventservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@Configuration
+public class RemoteCallConfig {
+
+    // Remote validation calls are blocking Feign requests, so each one gets its own virtual thread
+    @Bean
+    public SimpleAsyncTaskExecutor remoteCallExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("remote-call-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
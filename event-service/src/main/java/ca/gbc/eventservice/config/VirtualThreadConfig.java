@@ -0,0 +1,18 @@
+package ca.gbc.eventservice.config;
+
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Validation hops run on virtual threads too; jvm.threads.virtual.pinned shows any Feign call that pins
+    @Bean
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
@@ -1,4 +1,5 @@
 package ca.gbc.eventservice.controller;
+import ca.gbc.eventservice.catalog.RoomCatalogReplica;
 import ca.gbc.eventservice.client.BookingClient;
 import ca.gbc.eventservice.client.RoomClient;
 import ca.gbc.eventservice.client.UserClient;
@@ -6,16 +7,35 @@ import ca.gbc.eventservice.dto.BookingRequest;
 import ca.gbc.eventservice.dto.BookingResponse;
 import ca.gbc.eventservice.dto.EventRequest;
 import ca.gbc.eventservice.dto.EventResponse;
+import ca.gbc.eventservice.dto.PageResponse;
+import ca.gbc.eventservice.dto.RoomSummary;
 import ca.gbc.eventservice.service.EventService;
-import ca.gbc.eventservice.service.EventServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
@@ -26,8 +46,20 @@ public class EventController {
     private final EventService eventService;
     private final UserClient userClient;
     private final RoomClient roomClient;
+    private final RoomCatalogReplica roomCatalog;
     private final BookingClient bookingClient;
-    private final EventServiceImpl eventServiceImpl;
+    private final AsyncTaskExecutor remoteCallExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${event.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${event.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${event.validation.timeout:10s}")
+    private Duration validationTimeout;
 
 
 //    @PostMapping
@@ -97,52 +129,21 @@ public class EventController {
     @PostMapping
     public ResponseEntity<?> createEvent(@RequestBody EventRequest eventRequest) {
         try {
-            // Validate user type
-            String userType = getUserTypeOrHandleError(eventRequest.organizerId());
-            if (userType == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("The specified organizer does not exist.");
-            }
-
-            // Check attendee limits
-            if (eventService.isAllowedToCreateEvent(userType, eventRequest.expectedAttendees())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body("You have exceeded the allowed number of attendees for your role.");
-            }
-
-            // Validate room existence and capacity
-            if (!roomClient.checkRoomExists(eventRequest.roomId())) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("The specified room does not exist.");
-            }
-            if (!roomClient.isCapacitySufficient(eventRequest.roomId(), eventRequest.expectedAttendees())) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body("The selected room does not have enough capacity for the expected number of attendees.");
-            }
-
-            // Validate room availability via BookingClient
-            ResponseEntity<Boolean> roomAvailabilityResponse = bookingClient.isRoomAvailable(
-                    eventRequest.roomId(),
-                    eventRequest.startTime().toString(),
-                    eventRequest.endTime().toString()
-            );
-
-            if (!roomAvailabilityResponse.getStatusCode().is2xxSuccessful() || Boolean.FALSE.equals(roomAvailabilityResponse.getBody())) {
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body("The room is already booked for the requested time.");
+            // Validate organizer, room and availability concurrently
+            RemoteValidation validation = validateRemotely(eventRequest);
+            if (validation.rejection() != null) {
+                return validation.rejection();
             }
 
-            eventServiceImpl.setEventType(eventRequest.eventType());
-            eventServiceImpl.setExpectedAttendees(eventRequest.expectedAttendees());
-
-
             // Create booking via BookingClient
             BookingRequest bookingRequest = new BookingRequest(
                     eventRequest.organizerId(),
                     eventRequest.roomId(),
                     eventRequest.startTime(),
                     eventRequest.endTime(),
-                    eventRequest.eventName()
+                    eventRequest.eventName(),
+                    eventRequest.eventType(),
+                    eventRequest.expectedAttendees()
             );
 
 
@@ -174,6 +175,34 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    // Retrieve events one page at a time; pass the returned nextCursor as "after" for the next page
+    @GetMapping("/page")
+    public ResponseEntity<PageResponse<EventResponse>> getEventsPage(@RequestParam(required = false) String after,
+                                                                     @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        try {
+            return ResponseEntity.ok(eventService.getEventsPage(after, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // All events as NDJSON, one line per document as the cursor yields it
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEvents() {
+        StreamingResponseBody body = out -> eventService.streamAllEvents(event -> writeLine(out, event));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/{eventId}")
     public ResponseEntity<EventResponse> getEventById(@PathVariable String eventId) {
         try {
@@ -207,43 +236,20 @@ public class EventController {
                 return ResponseEntity.status(HttpStatus.OK).headers(headers).body(existingEvent);
             }
 
-            String userType = getUserTypeOrHandleError(eventRequest.organizerId());
-            if (userType == null) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("The specified organizer does not exist.");
-            }
-
-            if (eventService.isAllowedToCreateEvent(userType, eventRequest.expectedAttendees())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body("You have exceeded the allowed number of attendees for your role.");
-            }
-
-            if (!roomClient.checkRoomExists(eventRequest.roomId())) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body("The specified room does not exist.");
-            }
-
-            if (!roomClient.isCapacitySufficient(eventRequest.roomId(), eventRequest.expectedAttendees())) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body("The selected room does not have enough capacity for the expected number of attendees.");
-            }
-
-            ResponseEntity<Boolean> roomAvailabilityResponse = bookingClient.isRoomAvailable(
-                    eventRequest.roomId(),
-                    eventRequest.startTime().toString(),
-                    eventRequest.endTime().toString()
-            );
-
-            if (!roomAvailabilityResponse.getStatusCode().is2xxSuccessful() || Boolean.FALSE.equals(roomAvailabilityResponse.getBody())) {
-                return ResponseEntity.status(HttpStatus.CONFLICT).body("The room is already booked for the requested time.");
+            RemoteValidation validation = validateRemotely(eventRequest);
+            if (validation.rejection() != null) {
+                return validation.rejection();
             }
+            String userType = validation.userType();
 
             BookingRequest bookingRequest = new BookingRequest(
                     eventRequest.organizerId(),
                     eventRequest.roomId(),
                     eventRequest.startTime(),
                     eventRequest.endTime(),
-                    eventRequest.eventName()
+                    eventRequest.eventName(),
+                    eventRequest.eventType(),
+                    eventRequest.expectedAttendees()
             );
 
             ResponseEntity<BookingResponse> bookingResponseEntity = bookingClient.createEventBooking(bookingRequest);
@@ -312,6 +318,105 @@ public class EventController {
 
 
 
+    // Runs the independent remote checks in parallel and returns as soon as one of them rejects the request.
+    // Calls still running then are interrupted, which aborts a blocking socket read on a virtual thread.
+    private RemoteValidation validateRemotely(EventRequest eventRequest) throws Exception {
+        List<Future<?>> calls = new ArrayList<>();
+        CompletableFuture<String> userType = remoteHop("user", () -> getUserTypeOrHandleError(eventRequest.organizerId()), calls);
+        // Rooms come from the local catalog replica; only a room it has not seen yet costs a call to room-service
+        CompletableFuture<RoomSummary> roomSummary = roomCatalog.find(eventRequest.roomId())
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> remoteHop("room", () -> roomClient.getRoomSummary(eventRequest.roomId()), calls));
+        List<CompletableFuture<ResponseEntity<?>>> checks = List.of(
+                userType.thenApply(type -> {
+                    if (type == null) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body("The specified organizer does not exist.");
+                    }
+                    if (eventService.isAllowedToCreateEvent(type, eventRequest.expectedAttendees())) {
+                        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                                .body("You have exceeded the allowed number of attendees for your role.");
+                    }
+                    return null;
+                }),
+                roomSummary.thenApply(room -> {
+                    if (!room.exists()) {
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                .body("The specified room does not exist.");
+                    }
+                    if (!room.hasCapacityFor(eventRequest.expectedAttendees())) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .body("The selected room does not have enough capacity for the expected number of attendees.");
+                    }
+                    return null;
+                }),
+                remoteHop("booking", () -> {
+                    ResponseEntity<Boolean> availability = bookingClient.isRoomAvailable(
+                            eventRequest.roomId(),
+                            eventRequest.startTime().toString(),
+                            eventRequest.endTime().toString());
+                    return availability.getStatusCode().is2xxSuccessful() && !Boolean.FALSE.equals(availability.getBody());
+                }, calls).thenApply(rejectUnless(HttpStatus.CONFLICT, "The room is already booked for the requested time."))
+        );
+
+        CompletableFuture<ResponseEntity<?>> firstRejection = new CompletableFuture<>();
+        checks.forEach(check -> check.thenAccept(rejection -> {
+            if (rejection != null) {
+                firstRejection.complete(rejection);
+            }
+        }));
+        // Rejections win over failures of other hops, which would otherwise surface as a generic error
+        CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new)).whenComplete((ignored, failure) -> {
+            for (CompletableFuture<ResponseEntity<?>> check : checks) {
+                if (!check.isCompletedExceptionally() && check.join() != null) {
+                    firstRejection.complete(check.join());
+                    return;
+                }
+            }
+            if (failure != null) {
+                firstRejection.completeExceptionally(failure);
+            } else {
+                firstRejection.complete(null);
+            }
+        });
+
+        try {
+            ResponseEntity<?> rejection = firstRejection.get(validationTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return new RemoteValidation(rejection == null ? userType.join() : null, rejection);
+        } catch (TimeoutException e) {
+            log.warn("Remote validation of event {} timed out after {}", eventRequest.eventName(), validationTimeout);
+            return new RemoteValidation(null, ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body("Validating the event request timed out."));
+        } finally {
+            calls.forEach(call -> call.cancel(true));
+        }
+    }
+
+    // Cancelling a CompletableFuture does not interrupt the thread running it, so the executor's own Future is kept for that
+    private <T> CompletableFuture<T> remoteHop(String hop, Supplier<T> call, List<Future<?>> calls) {
+        Timer timer = Timer.builder("event.validation.hop")
+                .description("Latency of remote checks made while validating an event request")
+                .tag("hop", hop)
+                .register(meterRegistry);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        calls.add(remoteCallExecutor.submit(() -> {
+            try {
+                result.complete(timer.record(call));
+            } catch (Throwable t) {
+                // Errors too, or the validation waiting on this hop would never complete
+                result.completeExceptionally(t);
+            }
+        }));
+        return result;
+    }
+
+    private static Function<Boolean, ResponseEntity<?>> rejectUnless(HttpStatus status, String message) {
+        return passed -> Boolean.TRUE.equals(passed) ? null : ResponseEntity.status(status).body(message);
+    }
+
+    private record RemoteValidation(String userType, ResponseEntity<?> rejection) {
+    }
+
     // Helper method to handle user retrieval and check if user exists
     private String getUserTypeOrHandleError(Integer organizerId) {
         try {
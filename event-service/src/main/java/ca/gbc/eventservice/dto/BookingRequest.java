@@ -7,6 +7,8 @@ public record BookingRequest(
         Integer roomId,          // ID of the room booked
         LocalDateTime startTime, // Start time of the booking
         LocalDateTime endTime,   // End time of the booking
-        String purpose
+        String purpose,
+        String eventType,        // Event details, passed through to the BookingEvent for event registration
+        Integer expectedAttendees
 ) {
 }
@@ -0,0 +1,9 @@
+package ca.gbc.eventservice.dto;
+
+import java.util.List;
+
+public record PageResponse<T>(
+        List<T> items,
+        String nextCursor   // Pass as "after" to fetch the next page, null on the last page
+) {
+}
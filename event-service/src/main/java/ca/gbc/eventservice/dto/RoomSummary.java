@@ -0,0 +1,14 @@
+package ca.gbc.eventservice.dto;
+
+public record RoomSummary(
+        Integer id,
+        boolean exists,
+        boolean availability,
+        Integer capacity
+) {
+
+    // Check if the room can accommodate the specified number of attendees
+    public boolean hasCapacityFor(int requiredCapacity) {
+        return capacity != null && requiredCapacity <= capacity;
+    }
+}
@@ -16,5 +16,8 @@ public class BookingEvent {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private String purpose;
+    private String eventType;
+    private Integer expectedAttendees;
+    private String eventId;   // Same on every redelivery of one BookingEvent
 
 }
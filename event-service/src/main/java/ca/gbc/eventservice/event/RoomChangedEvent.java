@@ -0,0 +1,19 @@
+package ca.gbc.eventservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomChangedEvent {
+    private Integer roomId;
+    private String name;
+    private Integer capacity;
+    private Boolean availability;
+    private List<String> features;
+
+}
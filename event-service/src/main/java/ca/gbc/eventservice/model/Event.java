@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -34,6 +35,9 @@ public class Event {
 
     private String bookingId;   // ID of the booking created in BookingService
 
+    @Indexed(unique = true, sparse = true)
+    private String sourceBookingEventId;   // BookingEvent this event was registered from, unique so a redelivery is not registered twice
+
 
     private Integer roomId;  // ID reference to the room where the event will be held
     
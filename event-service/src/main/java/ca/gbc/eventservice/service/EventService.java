@@ -2,14 +2,18 @@ package ca.gbc.eventservice.service;
 
 import ca.gbc.eventservice.dto.EventRequest;
 import ca.gbc.eventservice.dto.EventResponse;
+import ca.gbc.eventservice.dto.PageResponse;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EventService {
 
     EventResponse createEvent(EventRequest eventRequest, String status, String bookingId);
     List<EventResponse> getAllEvents();
+    PageResponse<EventResponse> getEventsPage(String after, int size);
+    void streamAllEvents(Consumer<EventResponse> consumer);
     EventResponse getEventById(String eventId);
     EventResponse updateEvent(String eventId, EventRequest eventRequest, String status, String bookingId);
     void deleteEvent(String eventId);
@@ -3,69 +3,105 @@ package ca.gbc.eventservice.service;
 import ca.gbc.eventservice.client.BookingClient;
 import ca.gbc.eventservice.dto.EventRequest;
 import ca.gbc.eventservice.dto.EventResponse;
+import ca.gbc.eventservice.dto.PageResponse;
 import ca.gbc.eventservice.event.BookingEvent;
 import ca.gbc.eventservice.model.Event;
 import ca.gbc.eventservice.repository.EventRepository;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import lombok.Setter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class EventServiceImpl implements EventService {
 
     private final EventRepository eventRepository;
     private final BookingClient bookingClient;
+    private final MongoTemplate mongoTemplate;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer bulkWriteTimer;
+    private final Counter duplicateCounter;
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    private static final int STREAM_CURSOR_BATCH_SIZE = 500;
 
     private static final int STUDENT_LIMIT = 50;
     private static final int STAFF_LIMIT = 100;
     private static final int FACULTY_LIMIT = 200;
 
-    @Setter
-    @Getter
-    private String eventType;
-
-    @Setter
-    @Getter
-    private Integer expectedAttendees;
+    public EventServiceImpl(EventRepository eventRepository, BookingClient bookingClient,
+                            MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.bookingClient = bookingClient;
+        this.mongoTemplate = mongoTemplate;
+        this.batchSizeSummary = DistributionSummary.builder("event.consumer.batch.size")
+                .description("BookingEvents received per Kafka poll batch")
+                .register(meterRegistry);
+        this.bulkWriteTimer = Timer.builder("event.consumer.bulk.write")
+                .description("Time taken to bulk insert one batch of events")
+                .register(meterRegistry);
+        this.duplicateCounter = Counter.builder("event.consumer.duplicates")
+                .description("Redelivered BookingEvents skipped because their event already exists")
+                .register(meterRegistry);
+    }
 
 
+    // Runs in batch mode (spring.kafka.listener.type=batch); offsets are committed only after this returns,
+    // so a failed bulk write is redelivered by the container's error handler instead of being lost
     @KafkaListener(topics = "booking", groupId = "${spring.kafka.consumer.group-id}")
-    public void consumeBookingEvent(BookingEvent bookingEvent) {
-        log.info("Received BookingEvent from Kafka: {}", bookingEvent);
+    public void consumeBookingEvents(List<BookingEvent> bookingEvents) {
+        log.debug("Received {} BookingEvents from Kafka", bookingEvents.size());
+        batchSizeSummary.record(bookingEvents.size());
+        List<Event> events = bookingEvents.stream().map(this::toEvent).toList();
+
+        Timer.Sample sample = Timer.start();
         try {
-            registerEvent(bookingEvent);
-        } catch (Exception e) {
-            log.error("Error processing BookingEvent: {}", bookingEvent, e);
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class)
+                    .insert(events)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // Redelivered events hit the unique sourceBookingEventId index; anything else fails the batch
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+            duplicateCounter.increment(e.getErrors().size());
+            log.info("Skipped {} already registered events in a batch of {}", e.getErrors().size(), events.size());
+        } finally {
+            sample.stop(bulkWriteTimer);
         }
+        log.info("Registered {} events from booking events", events.size());
     }
 
-    private void registerEvent(BookingEvent bookingEvent) {
-        try {
-            Event event = Event.builder()
-                    .eventName(bookingEvent.getPurpose())
-                    .organizerId(bookingEvent.getUserId())
-                    .roomId(bookingEvent.getRoomId())
-                    .eventType(eventType)
-                    .expectedAttendees(expectedAttendees)
-                    .startTime(bookingEvent.getStartTime())
-                    .endTime(bookingEvent.getEndTime())
-                    .bookingId(bookingEvent.getBookingId())
-                    .status("PENDING")
-                    .build();
-
-            eventRepository.save(event);
-            log.info("Registered Event for Booking ID: {}", bookingEvent.getBookingId());
-        } catch (Exception e) {
-            log.error("Error registering event for Booking ID: {}", bookingEvent.getBookingId(), e);
-        }
+    private Event toEvent(BookingEvent bookingEvent) {
+        return Event.builder()
+                .eventName(bookingEvent.getPurpose())
+                .organizerId(bookingEvent.getUserId())
+                .roomId(bookingEvent.getRoomId())
+                .eventType(bookingEvent.getEventType())
+                .expectedAttendees(bookingEvent.getExpectedAttendees())
+                .startTime(bookingEvent.getStartTime())
+                .endTime(bookingEvent.getEndTime())
+                .bookingId(bookingEvent.getBookingId())
+                .sourceBookingEventId(bookingEvent.getEventId())
+                .status("PENDING")
+                .build();
     }
 
 
@@ -95,6 +131,27 @@ public class EventServiceImpl implements EventService {
                 .collect(Collectors.toList());
     }
 
+    // Next page of events after the given _id, in _id order
+    @Override
+    public PageResponse<EventResponse> getEventsPage(String after, int size) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+        if (after != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+        }
+        List<Event> events = mongoTemplate.find(query, Event.class);
+        List<EventResponse> items = events.stream().limit(size).map(this::mapToEventResponse).toList();
+        String nextCursor = events.size() > size ? items.get(items.size() - 1).id() : null;
+        return new PageResponse<>(items, nextCursor);
+    }
+
+    @Override
+    public void streamAllEvents(Consumer<EventResponse> consumer) {
+        Query query = new Query().cursorBatchSize(STREAM_CURSOR_BATCH_SIZE);
+        try (Stream<Event> events = mongoTemplate.stream(query, Event.class)) {
+            events.map(this::mapToEventResponse).forEach(consumer);
+        }
+    }
+
     @Override
     public EventResponse getEventById(String eventId) {
         Event event = eventRepository.findById(eventId)
@@ -1,27 +1,83 @@
 package ca.gbc.eventservice;
 
+import ca.gbc.eventservice.catalog.RoomCatalogReplica;
 import ca.gbc.eventservice.client.BookingClient;
 import ca.gbc.eventservice.client.RoomClient;
 import ca.gbc.eventservice.client.UserClient;
+import ca.gbc.eventservice.config.FeignClientConfig;
 import ca.gbc.eventservice.controller.EventController;
 import ca.gbc.eventservice.dto.*;
+import ca.gbc.eventservice.event.BookingEvent;
+import ca.gbc.eventservice.model.Event;
+import ca.gbc.eventservice.repository.EventRepository;
 import ca.gbc.eventservice.service.EventService;
+import ca.gbc.eventservice.service.EventServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.restassured.module.mockmvc.RestAssuredMockMvc;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.Timeout;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 public class EventServiceApplicationTests {
@@ -35,15 +91,28 @@ public class EventServiceApplicationTests {
     @Mock
     private RoomClient roomClient;
 
+    @Mock
+    private RoomCatalogReplica roomCatalog;
+
     @Mock
     private BookingClient bookingClient;
 
+    @Spy
+    private SimpleAsyncTaskExecutor remoteCallExecutor = new SimpleAsyncTaskExecutor();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private EventController eventController;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(eventController, "validationTimeout", Duration.ofSeconds(10));
         RestAssuredMockMvc.standaloneSetup(eventController);
     }
 
@@ -53,8 +122,7 @@ public class EventServiceApplicationTests {
                 LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2), 101);
 
         when(userClient.getUserType(1)).thenReturn("FACULTY");
-        when(roomClient.checkRoomExists(101)).thenReturn(true);
-        when(roomClient.isCapacitySufficient(101, 50)).thenReturn(true);
+        when(roomClient.getRoomSummary(101)).thenReturn(new RoomSummary(101, true, true, 60));
         when(bookingClient.isRoomAvailable(101, eventRequest.startTime().toString(), eventRequest.endTime().toString()))
                 .thenReturn(new ResponseEntity<>(true, HttpStatus.OK));
 
@@ -76,6 +144,137 @@ public class EventServiceApplicationTests {
                 .body("status", equalTo("PENDING"));
     }
 
+    @Test
+    public void testCreateEvent_RoomCheckedAgainstLocalCatalog() {
+        EventRequest eventRequest = new EventRequest("Workshop", 1, "Conference", 50,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2), 101);
+
+        when(userClient.getUserType(1)).thenReturn("FACULTY");
+        when(roomCatalog.find(101)).thenReturn(Optional.of(new RoomSummary(101, true, true, 20)));
+        when(bookingClient.isRoomAvailable(101, eventRequest.startTime().toString(), eventRequest.endTime().toString()))
+                .thenReturn(new ResponseEntity<>(true, HttpStatus.OK));
+
+        given()
+                .contentType("application/json")
+                .body(eventRequest)
+                .when()
+                .post("/api/events")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body(equalTo("The selected room does not have enough capacity for the expected number of attendees."));
+
+        verify(roomClient, never()).getRoomSummary(anyInt());
+        verify(bookingClient, never()).createEventBooking(any(BookingRequest.class));
+    }
+
+    @Test
+    public void testCreateEvent_RoomUnavailableRejectedWithoutBooking() {
+        EventRequest eventRequest = new EventRequest("Workshop", 1, "Conference", 50,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2), 101);
+
+        when(userClient.getUserType(1)).thenReturn("FACULTY");
+        when(roomClient.getRoomSummary(101)).thenReturn(new RoomSummary(101, true, true, 60));
+        when(bookingClient.isRoomAvailable(101, eventRequest.startTime().toString(), eventRequest.endTime().toString()))
+                .thenReturn(new ResponseEntity<>(false, HttpStatus.OK));
+
+        given()
+                .contentType("application/json")
+                .body(eventRequest)
+                .when()
+                .post("/api/events")
+                .then()
+                .statusCode(HttpStatus.CONFLICT.value())
+                .body(equalTo("The room is already booked for the requested time."));
+
+        verify(bookingClient, never()).createEventBooking(any(BookingRequest.class));
+        assertEquals(1, meterRegistry.get("event.validation.hop").tag("hop", "booking").timer().count());
+    }
+
+    @Test
+    public void testCreateEvent_RejectionInterruptsCallsStillRunning() throws Exception {
+        EventRequest eventRequest = new EventRequest("Workshop", 1, "Conference", 50,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2), 101);
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(userClient.getUserType(1)).thenReturn("FACULTY");
+        when(roomClient.getRoomSummary(101)).thenReturn(new RoomSummary(101, false, false, null));
+        when(bookingClient.isRoomAvailable(101, eventRequest.startTime().toString(), eventRequest.endTime().toString()))
+                .thenAnswer(invocation -> {
+                    try {
+                        Thread.sleep(30_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return new ResponseEntity<>(true, HttpStatus.OK);
+                });
+
+        given()
+                .contentType("application/json")
+                .body(eventRequest)
+                .when()
+                .post("/api/events")
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value())
+                .body(equalTo("The specified room does not exist."));
+
+        // The slow availability check is not left running once the room check has rejected the request
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCreateEvent_ErrorInAHopFailsTheRequestInsteadOfHanging() {
+        EventRequest eventRequest = new EventRequest("Workshop", 1, "Conference", 50,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2), 101);
+
+        when(userClient.getUserType(1)).thenReturn("FACULTY");
+        when(roomClient.getRoomSummary(101)).thenReturn(new RoomSummary(101, true, true, 60));
+        when(bookingClient.isRoomAvailable(101, eventRequest.startTime().toString(), eventRequest.endTime().toString()))
+                .thenThrow(new NoClassDefFoundError("feign/codec/Decoder"));
+
+        given()
+                .contentType("application/json")
+                .body(eventRequest)
+                .when()
+                .post("/api/events")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+        verify(bookingClient, never()).createEventBooking(any(BookingRequest.class));
+    }
+
+    @Test
+    public void testCreateEvent_SlowValidationTimesOutWith504() throws Exception {
+        ReflectionTestUtils.setField(eventController, "validationTimeout", Duration.ofMillis(200));
+        EventRequest eventRequest = new EventRequest("Workshop", 1, "Conference", 50,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(2), 101);
+
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(userClient.getUserType(1)).thenReturn("FACULTY");
+        when(roomClient.getRoomSummary(101)).thenReturn(new RoomSummary(101, true, true, 60));
+        when(bookingClient.isRoomAvailable(101, eventRequest.startTime().toString(), eventRequest.endTime().toString()))
+                .thenAnswer(invocation -> {
+                    try {
+                        Thread.sleep(30_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        throw e;
+                    }
+                    return new ResponseEntity<>(true, HttpStatus.OK);
+                });
+
+        given()
+                .contentType("application/json")
+                .body(eventRequest)
+                .when()
+                .post("/api/events")
+                .then()
+                .statusCode(HttpStatus.GATEWAY_TIMEOUT.value());
+
+        // The hop still waiting is cancelled along with the request
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        verify(bookingClient, never()).createEventBooking(any(BookingRequest.class));
+    }
+
     @Test
     public void testGetAllEvents() {
         EventResponse event1 = new EventResponse("event123", "Workshop", 1, "Conference", 50,
@@ -165,8 +364,7 @@ public class EventServiceApplicationTests {
 
         when(eventService.getEventById("event123")).thenReturn(existingEvent);
         when(userClient.getUserType(1)).thenReturn("FACULTY");
-        when(roomClient.checkRoomExists(101)).thenReturn(true);
-        when(roomClient.isCapacitySufficient(101, 50)).thenReturn(true);
+        when(roomClient.getRoomSummary(101)).thenReturn(new RoomSummary(101, true, true, 60));
         when(bookingClient.isRoomAvailable(101, eventRequest.startTime().toString(), eventRequest.endTime().toString()))
                 .thenReturn(new ResponseEntity<>(true, HttpStatus.OK));
 
@@ -187,4 +385,288 @@ public class EventServiceApplicationTests {
                 .body("id", equalTo("event123"))
                 .body("status", equalTo("PENDING"));
     }
+
+    @Test
+    public void testConsumeBookingEvents_BulkInsertsBatchAndSkipsDuplicates() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        doThrow(bulkWriteFailure(11000)).when(bulkOperations).execute();
+        EventServiceImpl eventServiceImpl = new EventServiceImpl(mock(EventRepository.class), bookingClient,
+                mongoTemplate, meterRegistry);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        eventServiceImpl.consumeBookingEvents(List.of(
+                new BookingEvent("booking1", 101, 1, start, start.plusHours(1), "Workshop", "Workshop", 20, "outbox1"),
+                new BookingEvent("booking2", 102, 1, start, start.plusHours(1), "Seminar", "Seminar", 30, "outbox2")));
+
+        verify(bulkOperations, times(1)).insert(argThat((List<?> events) -> events.size() == 2));
+        assertEquals(2, meterRegistry.get("event.consumer.batch.size").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("event.consumer.duplicates").counter().count());
+
+        // Any other write error fails the batch so its offsets are not committed
+        doThrow(bulkWriteFailure(121)).when(bulkOperations).execute();
+        assertThrows(BulkOperationException.class, () -> eventServiceImpl.consumeBookingEvents(List.of(
+                new BookingEvent("booking3", 103, 1, start, start.plusHours(1), "Lecture", "Lecture", 40, "outbox3"))));
+    }
+
+    @Test
+    public void testUpdateEvent_WhileTheConsumerRegistersItsNewBooking() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        Event existing = Event.builder().id("event123").eventName("Workshop").organizerId(1).eventType("Conference")
+                .expectedAttendees(50).startTime(start.minusDays(2)).endTime(start.minusDays(2).plusHours(2))
+                .roomId(101).bookingId("booking123").status("PENDING").build();
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findById("event123")).thenReturn(Optional.of(existing));
+
+        // Stands in for Mongo: only sourceBookingEventId is unique, as on the real collection
+        Set<String> registered = ConcurrentHashMap.newKeySet();
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class)).thenReturn(bulkOperations);
+        List<Event> batch = new ArrayList<>();
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            batch.addAll(invocation.getArgument(0));
+            return bulkOperations;
+        });
+        when(bulkOperations.execute()).thenAnswer(invocation -> {
+            List<Event> inserted = List.copyOf(batch);
+            batch.clear();
+            if (!inserted.stream().allMatch(event -> registered.add(event.getSourceBookingEventId()))) {
+                throw bulkWriteFailure(11000);
+            }
+            return null;
+        });
+        EventServiceImpl eventServiceImpl = new EventServiceImpl(eventRepository, bookingClient, mongoTemplate, meterRegistry);
+
+        // The new booking's BookingEvent reaches the consumer while the update is still saving the same bookingId
+        BookingEvent published = new BookingEvent("newBookingId", 102, 1, start, start.plusHours(2),
+                "Workshop Update", "Conference", 60, "outbox-newBookingId");
+        CountDownLatch consumed = new CountDownLatch(1);
+        when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> {
+            assertTrue(consumed.await(5, TimeUnit.SECONDS));
+            return invocation.getArgument(0);
+        });
+        EventRequest eventRequest = new EventRequest("Workshop Update", 1, "Conference", 60, start, start.plusHours(2), 102);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<EventResponse> update = executor.submit(() ->
+                    eventServiceImpl.updateEvent("event123", eventRequest, "PENDING", "newBookingId"));
+            executor.submit(() -> {
+                eventServiceImpl.consumeBookingEvents(List.of(published));
+                consumed.countDown();
+            }).get();
+            assertEquals("newBookingId", update.get(5, TimeUnit.SECONDS).bookingId());
+        }
+        assertEquals(Set.of("outbox-newBookingId"), registered);
+        assertEquals(0, meterRegistry.get("event.consumer.duplicates").counter().count());
+
+        // Only a redelivery of that same BookingEvent is skipped
+        eventServiceImpl.consumeBookingEvents(List.of(published));
+        assertEquals(1, meterRegistry.get("event.consumer.duplicates").counter().count());
+    }
+
+    @Test
+    public void testCreateEvent_ConcurrentRequestsKeepTheirOwnEventDetails() throws Exception {
+        when(userClient.getUserType(anyInt())).thenReturn("FACULTY");
+        when(roomClient.getRoomSummary(anyInt())).thenAnswer(invocation -> {
+            Integer roomId = invocation.getArgument(0);
+            return new RoomSummary(roomId, true, true, 500);
+        });
+        when(bookingClient.isRoomAvailable(anyInt(), anyString(), anyString()))
+                .thenReturn(new ResponseEntity<>(true, HttpStatus.OK));
+
+        // Stand in for booking-service: turn every booking request into the BookingEvent it would publish
+        Queue<BookingEvent> published = new ConcurrentLinkedQueue<>();
+        when(bookingClient.createEventBooking(any(BookingRequest.class))).thenAnswer(invocation -> {
+            BookingRequest request = invocation.getArgument(0);
+            String bookingId = "booking-" + request.roomId();
+            published.add(new BookingEvent(bookingId, request.roomId(), request.userId(), request.startTime(),
+                    request.endTime(), request.purpose(), request.eventType(), request.expectedAttendees(), "outbox-" + request.roomId()));
+            return new ResponseEntity<>(new BookingResponse(bookingId, request.userId(), request.roomId(),
+                    request.startTime(), request.endTime(), request.purpose()), HttpStatus.CREATED);
+        });
+
+        int requests = 200;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                EventRequest eventRequest = new EventRequest("Event " + i, 1, "Type " + i, i + 1,
+                        start, start.plusHours(1), 1000 + i);
+                responses.add(executor.submit(() -> eventController.createEvent(eventRequest)));
+            }
+            for (Future<ResponseEntity<?>> response : responses) {
+                assertEquals(HttpStatus.ACCEPTED, response.get().getStatusCode());
+            }
+        }
+        assertEquals(requests, published.size());
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        BulkOperations bulkOperations = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Event.class)).thenReturn(bulkOperations);
+        List<Event> inserted = new ArrayList<>();
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            List<Event> events = invocation.getArgument(0);
+            inserted.addAll(events);
+            return bulkOperations;
+        });
+        new EventServiceImpl(mock(EventRepository.class), bookingClient, mongoTemplate, meterRegistry)
+                .consumeBookingEvents(List.copyOf(published));
+
+        assertEquals(requests, inserted.size());
+        for (Event event : inserted) {
+            int i = event.getRoomId() - 1000;
+            assertEquals("Event " + i, event.getEventName());
+            assertEquals("Type " + i, event.getEventType());
+            assertEquals(i + 1, event.getExpectedAttendees());
+        }
+    }
+
+    @Test
+    public void testGetEventsPage_FollowsTheCursorToTheLastPage() {
+        List<Event> stored = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stored.add(storedEvent(new ObjectId().toHexString(), "Event " + i));
+        }
+        stored.sort(Comparator.comparing(Event::getId));
+
+        // Stands in for Mongo: _id order, the page's _id > cursor filter and its limit
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.find(any(Query.class), eq(Event.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            assertEquals(new Document("_id", 1), query.getSortObject());
+            Document idFilter = query.getQueryObject().get("_id", Document.class);
+            ObjectId after = idFilter == null ? null : idFilter.get("$gt", ObjectId.class);
+            return stored.stream()
+                    .filter(event -> after == null || new ObjectId(event.getId()).compareTo(after) > 0)
+                    .limit(query.getLimit())
+                    .toList();
+        });
+        EventServiceImpl eventServiceImpl = new EventServiceImpl(mock(EventRepository.class), bookingClient, mongoTemplate, meterRegistry);
+
+        List<String> pagedIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            PageResponse<EventResponse> page = eventServiceImpl.getEventsPage(cursor, 2);
+            page.items().forEach(event -> pagedIds.add(event.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(stored.stream().map(Event::getId).toList(), pagedIds);
+        assertThrows(IllegalArgumentException.class, () -> eventServiceImpl.getEventsPage("not-an-id", 2));
+    }
+
+    @Test
+    public void testEventsPageAndStream_Endpoints() throws Exception {
+        ReflectionTestUtils.setField(eventController, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(eventController, "maxPageSize", 1000);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        EventResponse first = new EventResponse("event1", "Workshop", 1, "Conference", 50,
+                start, start.plusHours(2), 101, "booking1", "PENDING");
+        EventResponse second = new EventResponse("event2", "Seminar", 2, "Lecture", 30,
+                start, start.plusHours(1), 102, "booking2", "APPROVED");
+
+        when(eventService.getEventsPage(null, 2)).thenReturn(new PageResponse<>(List.of(first, second), "event2"));
+        when(eventService.getEventsPage("event2", 1000)).thenReturn(new PageResponse<>(List.of(), null));
+        when(eventService.getEventsPage("not-an-id", 100)).thenThrow(new IllegalArgumentException("invalid hexadecimal representation"));
+
+        given()
+                .queryParam("size", 2)
+                .when()
+                .get("/api/events/page")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("items.id", equalTo(List.of("event1", "event2")))
+                .body("nextCursor", equalTo("event2"));
+        // Oversized pages are capped at the configured maximum
+        given()
+                .queryParam("after", "event2")
+                .queryParam("size", 5000)
+                .when()
+                .get("/api/events/page")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("items", hasSize(0));
+        given()
+                .queryParam("after", "not-an-id")
+                .when()
+                .get("/api/events/page")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        doAnswer(invocation -> {
+            Consumer<EventResponse> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(eventService).streamAllEvents(any());
+        ResponseEntity<StreamingResponseBody> response = eventController.streamEvents();
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("event1", objectMapper.readTree(lines.get(0)).get("id").asText());
+        assertEquals("event2", objectMapper.readTree(lines.get(1)).get("id").asText());
+    }
+
+    @Test
+    public void testUserClient_CachesUserTypesUntilEvicted() {
+        UserClient downstream = mock(UserClient.class);
+        when(downstream.getUserType(1)).thenReturn("FACULTY");
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(CachingEnabled.class);
+            context.registerBean(CacheManager.class, () -> new CaffeineCacheManager("userTypes"));
+            context.registerBean(UserClient.class, () -> downstream);
+            context.refresh();
+            UserClient userClient = context.getBean(UserClient.class);
+
+            assertEquals("FACULTY", userClient.getUserType(1));
+            assertEquals("FACULTY", userClient.getUserType(1));
+            verify(downstream, times(1)).getUserType(1);
+
+            userClient.evictUserType(1);
+            assertEquals("FACULTY", userClient.getUserType(1));
+            verify(downstream, times(2)).getUserType(1);
+        }
+    }
+
+    @Test
+    public void testFeignHttpClient_BoundsTheWaitForAPooledConnection() throws Exception {
+        FeignClientConfig config = new FeignClientConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 200);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerRoute", 50);
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(3));
+        ReflectionTestUtils.setField(config, "keepAlive", Duration.ofSeconds(15));
+        ReflectionTestUtils.setField(config, "timeToLive", Duration.ofMinutes(5));
+        try (PoolingHttpClientConnectionManager connectionManager = config.internalConnectionManager();
+             CloseableHttpClient httpClient = config.internalHttpClient(connectionManager)) {
+            assertEquals(50, connectionManager.getDefaultMaxPerRoute());
+            assertEquals(Timeout.of(Duration.ofSeconds(3)), ((Configurable) httpClient).getConfig().getConnectionRequestTimeout());
+        }
+    }
+
+    private static Event storedEvent(String id, String name) {
+        Event event = new Event();
+        event.setId(id);
+        event.setEventName(name);
+        event.setOrganizerId(1);
+        event.setRoomId(101);
+        event.setStatus("PENDING");
+        return event;
+    }
+
+    private static BulkOperationException bulkWriteFailure(int errorCode) {
+        BulkWriteError error = new BulkWriteError(errorCode, "write failed", new BsonDocument(), 0);
+        return new BulkOperationException("Bulk write failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of()));
+    }
+
+    @EnableCaching
+    static class CachingEnabled {
+    }
 }
@@ -0,0 +1,57 @@
+plugins {
+    java
+    id("io.spring.dependency-management") version "1.1.6"
+}
+
+group = "ca.gbc"
+version = "0.0.1-SNAPSHOT"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(23)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencyManagement {
+    imports {
+        mavenBom("org.springframework.boot:spring-boot-dependencies:3.3.5")
+    }
+}
+
+dependencies {
+    implementation("org.wiremock:wiremock-standalone:3.9.1")
+    implementation("org.testcontainers:mongodb")
+    implementation("org.springframework.kafka:spring-kafka-test")
+    implementation("com.fasterxml.jackson.core:jackson-databind")
+    implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
+    runtimeOnly("org.slf4j:slf4j-simple")
+}
+
+// The services run from their boot jars, each in its own JVM, exactly as they would be deployed
+evaluationDependsOn(":booking-service")
+evaluationDependsOn(":event-service")
+val bookingServiceJar = project(":booking-service").tasks.named<Jar>("bootJar").flatMap { it.archiveFile }
+val eventServiceJar = project(":event-service").tasks.named<Jar>("bootJar").flatMap { it.archiveFile }
+
+// ./gradlew :load-tests:loadTest -Pload.duration=PT2M -Pload.concurrency=64 -Pload.stub.latency-ms=20
+// Platform pool vs virtual threads at high concurrency:
+// ./gradlew :load-tests:loadTest -Pload.threading=both -Pload.concurrency=1000 -Pload.stub.latency-ms=50
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the booking and event load test against local stand-ins for Mongo, Kafka, room and user"
+    dependsOn(":booking-service:bootJar", ":event-service:bootJar")
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass = "ca.gbc.loadtests.LoadTestRunner"
+    javaLauncher = javaToolchains.launcherFor { languageVersion = JavaLanguageVersion.of(23) }
+    doFirst {
+        systemProperty("load.booking-jar", bookingServiceJar.get().asFile.absolutePath)
+        systemProperty("load.event-jar", eventServiceJar.get().asFile.absolutePath)
+        systemProperty("load.report-dir", layout.buildDirectory.dir("load-tests").get().asFile.absolutePath)
+        project.properties.filterKeys { it.startsWith("load.") }
+            .forEach { (key, value) -> systemProperty(key, value.toString()) }
+    }
+}
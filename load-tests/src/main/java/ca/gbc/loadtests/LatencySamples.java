@@ -0,0 +1,47 @@
+package ca.gbc.loadtests;
+
+import java.util.Arrays;
+
+/**
+ * Latencies recorded by one worker, in nanoseconds. Each worker owns its samples, so recording
+ * needs no synchronization; workers are merged once the run is over.
+ */
+final class LatencySamples {
+
+    private long[] values = new long[1024];
+    private int size;
+    private int errors;
+
+    void record(long nanos, boolean expected) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = nanos;
+        if (!expected) {
+            errors++;
+        }
+    }
+
+    void addAll(LatencySamples other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    int errors() {
+        return errors;
+    }
+
+    long[] sorted() {
+        long[] copy = Arrays.copyOf(values, size);
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,162 @@
+package ca.gbc.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Closed-loop load: a fixed number of workers each send one request at a time, chosen from the
+ * configured booking mix, for the given duration.
+ *
+ * Every new booking or event gets a slot nobody has used yet (rooms round-robin, then the next
+ * hour), so only the conflicting-booking scenario ever hits a taken slot.
+ */
+public final class LoadGenerator {
+
+    private static final int RECENT_SLOTS = 4096;
+
+    private final LoadTestSettings settings;
+    private final String bookingServiceUrl;
+    private final String eventServiceUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final LocalDateTime firstSlot = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.HOURS);
+    private final AtomicLong nextSlot = new AtomicLong();
+    // Slots booked successfully, reused by the conflicting-booking scenario
+    private final AtomicLongArray recentSlots = new AtomicLongArray(RECENT_SLOTS);
+    private final AtomicInteger recentSlotCount = new AtomicInteger();
+
+    public LoadGenerator(LoadTestSettings settings, String bookingServiceUrl, String eventServiceUrl) {
+        this.settings = settings;
+        this.bookingServiceUrl = bookingServiceUrl;
+        this.eventServiceUrl = eventServiceUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public LoadReport run(Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+        List<Future<Map<Scenario, LatencySamples>>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.concurrency(); i++) {
+                workers.add(executor.submit(() -> work(deadline)));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        Map<Scenario, LatencySamples> merged = new EnumMap<>(Scenario.class);
+        for (Future<Map<Scenario, LatencySamples>> worker : workers) {
+            worker.get().forEach((scenario, samples) ->
+                    merged.computeIfAbsent(scenario, s -> new LatencySamples()).addAll(samples));
+        }
+        Map<String, LoadReport.ScenarioResult> results = new LinkedHashMap<>();
+        LatencySamples all = new LatencySamples();
+        merged.forEach((scenario, samples) -> {
+            results.put(scenario.label(), LoadReport.ScenarioResult.of(samples, elapsed));
+            all.addAll(samples);
+        });
+        return new LoadReport(elapsed, results, LoadReport.ScenarioResult.of(all, elapsed));
+    }
+
+    private Map<Scenario, LatencySamples> work(long deadline) throws IOException, InterruptedException {
+        Map<Scenario, LatencySamples> samples = new EnumMap<>(Scenario.class);
+        while (System.nanoTime() < deadline) {
+            Scenario scenario = pickScenario();
+            long slot;
+            if (scenario == Scenario.CONFLICTING_BOOKING) {
+                int known = Math.min(recentSlotCount.get(), RECENT_SLOTS);
+                if (known == 0) {
+                    scenario = Scenario.BOOKING;
+                    slot = nextSlot.getAndIncrement();
+                } else {
+                    slot = recentSlots.get(ThreadLocalRandom.current().nextInt(known));
+                }
+            } else {
+                slot = nextSlot.getAndIncrement();
+            }
+
+            HttpRequest request = request(scenario, slot);
+            long sent = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            }
+            long latency = System.nanoTime() - sent;
+            samples.computeIfAbsent(scenario, s -> new LatencySamples()).record(latency, status == scenario.expectedStatus());
+
+            if (scenario == Scenario.BOOKING && status == Scenario.BOOKING.expectedStatus()) {
+                recentSlots.set(recentSlotCount.getAndIncrement() % RECENT_SLOTS, slot);
+            }
+        }
+        return samples;
+    }
+
+    private Scenario pickScenario() {
+        int total = settings.bookingWeight() + settings.conflictWeight() + settings.eventWeight();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        if (pick < settings.bookingWeight()) {
+            return Scenario.BOOKING;
+        }
+        return pick < settings.bookingWeight() + settings.conflictWeight() ? Scenario.CONFLICTING_BOOKING : Scenario.EVENT;
+    }
+
+    private HttpRequest request(Scenario scenario, long slot) throws IOException {
+        int roomId = 1 + (int) (slot % settings.rooms());
+        LocalDateTime start = firstSlot.plusHours(slot / settings.rooms());
+        LocalDateTime end = start.plusMinutes(45);
+        int userId = 1 + ThreadLocalRandom.current().nextInt(settings.users());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        String url;
+        if (scenario == Scenario.EVENT) {
+            url = eventServiceUrl + "/api/events";
+            body.put("eventName", "Load test event " + slot);
+            body.put("organizerId", userId);
+            body.put("eventType", "Workshop");
+            body.put("expectedAttendees", 40);
+            body.put("roomId", roomId);
+        } else {
+            url = bookingServiceUrl + "/api/bookings";
+            body.put("userId", userId);
+            body.put("roomId", roomId);
+            body.put("purpose", "Load test booking " + slot);
+        }
+        body.put("startTime", start);
+        body.put("endTime", end);
+
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+}
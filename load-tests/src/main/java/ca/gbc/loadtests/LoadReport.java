@@ -0,0 +1,44 @@
+package ca.gbc.loadtests;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles of one measured run, per scenario and overall.
+ */
+public record LoadReport(Duration elapsed, Map<String, ScenarioResult> scenarios, ScenarioResult total) {
+
+    public record ScenarioResult(int requests, int unexpected, double throughputPerSecond,
+                                 double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+
+        static ScenarioResult of(LatencySamples samples, Duration elapsed) {
+            long[] sorted = samples.sorted();
+            return new ScenarioResult(samples.count(), samples.errors(),
+                    samples.count() / (elapsed.toNanos() / 1e9),
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        // Nearest-rank percentile, in milliseconds
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%nMeasured for %ds%n", elapsed.toSeconds());
+        out.printf("%-32s %9s %10s %9s %9s %9s %9s %9s%n", "scenario", "requests", "unexpected", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        scenarios.forEach((label, result) -> printRow(out, label, result));
+        printRow(out, "total", total);
+    }
+
+    private static void printRow(PrintStream out, String label, ScenarioResult result) {
+        out.printf("%-32s %9d %10d %9.1f %9.2f %9.2f %9.2f %9.2f%n", label, result.requests(), result.unexpected(),
+                result.throughputPerSecond(), result.p50Ms(), result.p90Ms(), result.p99Ms(), result.maxMs());
+    }
+}
@@ -0,0 +1,62 @@
+package ca.gbc.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts booking-service and event-service against local stand-ins, warms them up, then
+ * measures the configured booking mix. Prints p50/p90/p99 latency and throughput per scenario
+ * and writes the same numbers, with the settings used, to a JSON report.
+ *
+ * With load.threading=both the run is repeated on platform and on virtual threads and the two
+ * are compared side by side.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        Map<String, LoadReport> reports = new LinkedHashMap<>();
+        for (boolean virtualThreads : settings.virtualThreadModes()) {
+            String mode = virtualThreads ? "virtual threads" : "platform threads";
+            // A fresh environment per mode, so the second run does not inherit the first one's data
+            try (LocalEnvironment environment = LocalEnvironment.start(settings, virtualThreads)) {
+                LoadGenerator generator = new LoadGenerator(settings, environment.bookingServiceUrl(), environment.eventServiceUrl());
+
+                System.out.printf("[%s] Warming up for %ds with %d workers%n", mode, settings.warmup().toSeconds(), settings.concurrency());
+                generator.run(settings.warmup());
+
+                System.out.printf("[%s] Measuring for %ds%n", mode, settings.duration().toSeconds());
+                LoadReport report = generator.run(settings.duration());
+                System.out.printf("%n[%s]", mode);
+                report.print(System.out);
+                reports.put(mode, report);
+            }
+        }
+        if (reports.size() > 1) {
+            System.out.printf("%n%-18s %9s %9s %9s%n", "mode", "req/s", "p50 ms", "p99 ms");
+            reports.forEach((mode, report) -> System.out.printf("%-18s %9.1f %9.2f %9.2f%n",
+                    mode, report.total().throughputPerSecond(), report.total().p50Ms(), report.total().p99Ms()));
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("settings", settings);
+        json.put("reports", reports);
+        Path reportFile = settings.reportDir()
+                .resolve("report-" + Instant.now().truncatedTo(ChronoUnit.SECONDS).toString().replace(':', '-') + ".json");
+        Files.createDirectories(settings.reportDir());
+        new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(reportFile.toFile(), json);
+        System.out.println("Report written to " + reportFile);
+    }
+}
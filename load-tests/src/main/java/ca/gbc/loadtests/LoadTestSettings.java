@@ -0,0 +1,63 @@
+package ca.gbc.loadtests;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Load test knobs, read from load.* system properties (the Gradle task forwards -Pload.* to them).
+ */
+public record LoadTestSettings(
+        Path bookingJar,
+        Path eventJar,
+        Path reportDir,
+        Duration warmup,
+        Duration duration,
+        int concurrency,
+        int rooms,
+        int users,
+        long stubLatencyMs,     // Median latency of the room and user stubs
+        double stubLatencySigma, // Log-normal spread of that latency, 0 for a fixed delay
+        int bookingWeight,      // New bookings on a free slot
+        int conflictWeight,     // Bookings on a slot that is already taken
+        int eventWeight,        // Events, which go through event-service and then booking-service
+        String threading,       // platform, virtual, or both to run each and compare
+        int tomcatMaxThreads    // 0 keeps Tomcat's default of 200
+) {
+
+    public List<Boolean> virtualThreadModes() {
+        return switch (threading) {
+            case "platform" -> List.of(false);
+            case "virtual" -> List.of(true);
+            case "both" -> List.of(false, true);
+            default -> throw new IllegalStateException("load.threading must be platform, virtual or both, not " + threading);
+        };
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Path.of(required("load.booking-jar")),
+                Path.of(required("load.event-jar")),
+                Path.of(System.getProperty("load.report-dir", "build/load-tests")),
+                Duration.parse(System.getProperty("load.warmup", "PT15S")),
+                Duration.parse(System.getProperty("load.duration", "PT1M")),
+                Integer.getInteger("load.concurrency", 32),
+                Integer.getInteger("load.rooms", 200),
+                Integer.getInteger("load.users", 500),
+                Long.getLong("load.stub.latency-ms", 10),
+                Double.parseDouble(System.getProperty("load.stub.latency-sigma", "0.3")),
+                Integer.getInteger("load.mix.bookings", 60),
+                Integer.getInteger("load.mix.conflicts", 15),
+                Integer.getInteger("load.mix.events", 25),
+                System.getProperty("load.threading", "platform"),
+                Integer.getInteger("load.tomcat-max-threads", 0));
+    }
+
+    private static String required(String name) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            throw new IllegalStateException("Missing system property " + name + "; run through ./gradlew :load-tests:loadTest");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,127 @@
+package ca.gbc.loadtests;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * booking-service and event-service wired to local stand-ins: Mongo in a container, Kafka in
+ * this JVM and WireMock in place of room-service and user-service, with injected latency.
+ * The services run either on Tomcat's platform thread pool or on virtual threads.
+ */
+public final class LocalEnvironment implements AutoCloseable {
+
+    private final MongoDBContainer mongo;
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final WireMockServer downstream;
+    private ServiceProcess bookingService;
+    private ServiceProcess eventService;
+
+    private LocalEnvironment(MongoDBContainer mongo, EmbeddedKafkaKraftBroker kafka, WireMockServer downstream) {
+        this.mongo = mongo;
+        this.kafka = kafka;
+        this.downstream = downstream;
+    }
+
+    public static LocalEnvironment start(LoadTestSettings settings, boolean virtualThreads) throws Exception {
+        MongoDBContainer mongo = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+        mongo.start();
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1, "booking");
+        kafka.afterPropertiesSet();
+        // room-service is not started, so its compacted catalog topic is declared here; the replicas read it empty
+        kafka.addTopics(TopicBuilder.name("room-catalog").partitions(1).compact().build());
+        WireMockServer downstream = new WireMockServer(options().dynamicPort().containerThreads(200));
+        downstream.start();
+
+        LocalEnvironment environment = new LocalEnvironment(mongo, kafka, downstream);
+        try {
+            environment.stubDownstream(settings);
+            environment.startServices(settings, virtualThreads);
+        } catch (Exception e) {
+            environment.close();
+            throw e;
+        }
+        return environment;
+    }
+
+    public String bookingServiceUrl() {
+        return bookingService.baseUrl();
+    }
+
+    public String eventServiceUrl() {
+        return eventService.baseUrl();
+    }
+
+    // Every room and user endpoint the services call answers successfully after the configured latency
+    private void stubDownstream(LoadTestSettings settings) {
+        downstream.stubFor(get(urlPathMatching("/api/room/\\d+/summary"))
+                .willReturn(withLatency(okJson("""
+                        {"id": {{request.pathSegments.[2]}}, "exists": true, "availability": true, "capacity": 500}
+                        """).withTransformers("response-template"), settings)));
+        downstream.stubFor(post(urlPathEqualTo("/api/room/summaries"))
+                .willReturn(withLatency(okJson("""
+                        [{{#each (parseJson request.body) as |id|}}{"id": {{id}}, "exists": true, "availability": true, "capacity": 500}{{#unless @last}},{{/unless}}{{/each}}]
+                        """).withTransformers("response-template"), settings)));
+        downstream.stubFor(get(urlPathEqualTo("/api/room/summaries"))
+                .willReturn(withLatency(okJson(IntStream.rangeClosed(1, settings.rooms())
+                        .mapToObj(id -> "{\"id\": " + id + ", \"exists\": true, \"availability\": true, \"capacity\": 500}")
+                        .collect(Collectors.joining(",", "[", "]"))), settings)));
+        downstream.stubFor(get(urlPathMatching("/api/users/\\d+/type"))
+                .willReturn(withLatency(ok("STAFF").withHeader("Content-Type", "text/plain"), settings)));
+    }
+
+    private static ResponseDefinitionBuilder withLatency(ResponseDefinitionBuilder response, LoadTestSettings settings) {
+        if (settings.stubLatencyMs() <= 0) {
+            return response;
+        }
+        return settings.stubLatencySigma() > 0
+                ? response.withLogNormalRandomDelay(settings.stubLatencyMs(), settings.stubLatencySigma())
+                : response.withFixedDelay((int) settings.stubLatencyMs());
+    }
+
+    private void startServices(LoadTestSettings settings, boolean virtualThreads) throws Exception {
+        String stubUrl = downstream.baseUrl();
+        Map<String, String> common = new HashMap<>();
+        common.put("spring.kafka.bootstrap-servers", kafka.getBrokersAsString());
+        common.put("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+        common.put("room.service.url", stubUrl);
+        common.put("user.service.url", stubUrl);
+        if (settings.tomcatMaxThreads() > 0) {
+            common.put("server.tomcat.threads.max", String.valueOf(settings.tomcatMaxThreads()));
+        }
+        String suffix = virtualThreads ? "-virtual" : "-platform";
+
+        Map<String, String> booking = new HashMap<>(common);
+        booking.put("spring.data.mongodb.uri", mongo.getReplicaSetUrl("booking-service"));
+        bookingService = ServiceProcess.start("booking-service" + suffix, settings.bookingJar(), settings.reportDir(), booking);
+
+        Map<String, String> event = new HashMap<>(common);
+        event.put("spring.data.mongodb.uri", mongo.getReplicaSetUrl("event-service"));
+        event.put("booking.service.url", bookingService.baseUrl());
+        eventService = ServiceProcess.start("event-service" + suffix, settings.eventJar(), settings.reportDir(), event);
+    }
+
+    @Override
+    public void close() {
+        if (eventService != null) {
+            eventService.close();
+        }
+        if (bookingService != null) {
+            bookingService.close();
+        }
+        downstream.stop();
+        kafka.destroy();
+        mongo.stop();
+    }
+}
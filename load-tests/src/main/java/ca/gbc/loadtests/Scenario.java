@@ -0,0 +1,27 @@
+package ca.gbc.loadtests;
+
+/**
+ * The kinds of request in the load mix, with the status each one is expected to return.
+ */
+public enum Scenario {
+
+    BOOKING("POST /api/bookings", 201),
+    CONFLICTING_BOOKING("POST /api/bookings (taken slot)", 409),
+    EVENT("POST /api/events", 202);
+
+    private final String label;
+    private final int expectedStatus;
+
+    Scenario(String label, int expectedStatus) {
+        this.label = label;
+        this.expectedStatus = expectedStatus;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public int expectedStatus() {
+        return expectedStatus;
+    }
+}
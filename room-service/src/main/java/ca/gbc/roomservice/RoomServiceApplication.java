@@ -2,8 +2,10 @@ package ca.gbc.roomservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RoomServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,32 @@
+package ca.gbc.roomservice.catalog;
+
+import ca.gbc.roomservice.dto.RoomResponse;
+import ca.gbc.roomservice.dto.RoomSummary;
+import ca.gbc.roomservice.event.RoomChangedEvent;
+import ca.gbc.roomservice.model.Room;
+
+import java.util.List;
+
+/**
+ * Immutable copy of a room as held in the catalog snapshot. DTOs handed out are fresh
+ * instances, so callers can never modify the snapshot.
+ */
+public record CatalogRoom(int id, String name, Integer capacity, List<String> features, Boolean availability) {
+
+    static CatalogRoom of(Room room) {
+        List<String> features = room.getFeatures() == null ? List.of() : List.copyOf(room.getFeatures());
+        return new CatalogRoom(room.getId(), room.getName(), room.getCapacity(), features, room.getAvailability());
+    }
+
+    public RoomResponse toResponse() {
+        return new RoomResponse(id, name, capacity, features, availability);
+    }
+
+    public RoomSummary toSummary() {
+        return new RoomSummary(id, true, availability, capacity);
+    }
+
+    public RoomChangedEvent toEvent() {
+        return new RoomChangedEvent(id, name, capacity, availability, features);
+    }
+}
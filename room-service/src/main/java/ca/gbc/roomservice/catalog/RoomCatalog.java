@@ -0,0 +1,101 @@
+package ca.gbc.roomservice.catalog;
+
+import ca.gbc.roomservice.repository.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Immutable in-memory snapshot of every room and its features. Reads never touch Postgres;
+ * the snapshot is rebuilt after each write through RoomService, and periodically to pick up
+ * writes made by other instances. Every rebuild hands the rooms that changed, and any whose
+ * last send failed, to the publisher, so downstream replicas follow along. The first rebuild
+ * runs before the web server starts and publishes every room, so a fresh or truncated topic
+ * is repopulated.
+ */
+@Slf4j
+@Component
+public class RoomCatalog implements SmartInitializingSingleton {
+
+    private final RoomRepository roomRepository;
+    private final RoomCatalogPublisher publisher;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // Ordered by room id
+    private volatile NavigableMap<Integer, CatalogRoom> rooms = Collections.emptyNavigableMap();
+    private volatile RoomFeatureIndex featureIndex = RoomFeatureIndex.EMPTY;
+
+    public RoomCatalog(RoomRepository roomRepository, RoomCatalogPublisher publisher) {
+        this.roomRepository = roomRepository;
+        this.publisher = publisher;
+    }
+
+    public Optional<CatalogRoom> find(int id) {
+        return Optional.ofNullable(rooms.get(id));
+    }
+
+    public List<CatalogRoom> all() {
+        return List.copyOf(rooms.values());
+    }
+
+    // Up to limit rooms with an id greater than afterId, in id order
+    public List<CatalogRoom> page(int afterId, int limit) {
+        return rooms.tailMap(afterId, false).values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    // Rooms with all the features (case-insensitive), within the capacity range and with the given availability, in id order
+    public List<CatalogRoom> search(Collection<String> features, Integer minCapacity, Integer maxCapacity, Boolean availability) {
+        return featureIndex.search(features, minCapacity, maxCapacity, availability);
+    }
+
+    // After every bean is created, before the web server takes traffic
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${room.catalog.refresh-interval-ms:60000}",
+            fixedDelayString = "${room.catalog.refresh-interval-ms:60000}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            NavigableMap<Integer, CatalogRoom> previous = rooms;
+            Set<Integer> unsent = publisher.takeUnsent();
+            NavigableMap<Integer, CatalogRoom> current = new TreeMap<>();
+            // Rooms and features in one statement, however many rooms there are
+            roomRepository.findAllWithFeatures().stream()
+                    .map(CatalogRoom::of)
+                    .forEach(room -> current.put(room.id(), room));
+            rooms = Collections.unmodifiableNavigableMap(current);
+            featureIndex = new RoomFeatureIndex(current.values());
+
+            List<CatalogRoom> changed = current.values().stream()
+                    .filter(room -> unsent.contains(room.id()) || !Objects.equals(previous.get(room.id()), room))
+                    .toList();
+            List<Integer> removed = Stream.concat(previous.keySet().stream(), unsent.stream())
+                    .filter(id -> !current.containsKey(id))
+                    .distinct()
+                    .toList();
+            if (!changed.isEmpty() || !removed.isEmpty()) {
+                log.debug("Room catalog reloaded: {} rooms, {} changed, {} removed", current.size(), changed.size(), removed.size());
+                publisher.publish(changed, removed);
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+}
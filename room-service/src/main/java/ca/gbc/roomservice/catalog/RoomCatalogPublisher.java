@@ -0,0 +1,76 @@
+package ca.gbc.roomservice.catalog;
+
+import ca.gbc.roomservice.event.RoomChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Publishes room changes to the compacted room-catalog topic, keyed by room id. Sends run on a
+ * single background thread: the request that changed a room never waits on Kafka, and changes
+ * reach the topic in the order they happened. A room whose send failed is remembered until the
+ * next reload, which sends its then-current state again.
+ */
+@Slf4j
+@Component
+public class RoomCatalogPublisher {
+
+    private final KafkaTemplate<String, RoomChangedEvent> kafkaTemplate;
+    private final String topic;
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("room-catalog-publisher").daemon().factory());
+    private final Set<Integer> unsent = ConcurrentHashMap.newKeySet();
+
+    public RoomCatalogPublisher(KafkaTemplate<String, RoomChangedEvent> kafkaTemplate,
+                                @Value("${room.catalog.topic:room-catalog}") String topic) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = topic;
+    }
+
+    public void publish(Collection<CatalogRoom> changed, Collection<Integer> removed) {
+        List<RoomChangedEvent> events = changed.stream().map(CatalogRoom::toEvent).toList();
+        List<Integer> tombstones = List.copyOf(removed);
+        sender.execute(() -> {
+            events.forEach(event -> send(event.getRoomId(), event));
+            tombstones.forEach(roomId -> send(roomId, null));
+        });
+    }
+
+    // Rooms whose last send failed; the caller resends their current state
+    public Set<Integer> takeUnsent() {
+        Set<Integer> roomIds = Set.copyOf(unsent);
+        unsent.removeAll(roomIds);
+        return roomIds;
+    }
+
+    private void send(Integer roomId, RoomChangedEvent event) {
+        try {
+            kafkaTemplate.send(topic, String.valueOf(roomId), event).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    failed(roomId, ex);
+                }
+            });
+        } catch (RuntimeException e) {
+            failed(roomId, e);
+        }
+    }
+
+    private void failed(Integer roomId, Throwable ex) {
+        log.warn("Publishing room {} to {} failed, resending on the next reload: {}", roomId, topic, ex.getMessage());
+        unsent.add(roomId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+    }
+}
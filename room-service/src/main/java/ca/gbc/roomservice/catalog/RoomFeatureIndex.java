@@ -0,0 +1,110 @@
+package ca.gbc.roomservice.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Bitmap index over a catalog snapshot. Every room gets a bit position; each feature and the
+ * availability flag map to a bitmap of the rooms that have it, and a capacity range becomes a
+ * bitmap through a binary search over rooms sorted by capacity. A search is then just the
+ * intersection of those bitmaps. Built once per snapshot and never modified.
+ */
+final class RoomFeatureIndex {
+
+    static final RoomFeatureIndex EMPTY = new RoomFeatureIndex(List.of());
+
+    private final CatalogRoom[] rooms;
+    private final Map<String, BitSet> byFeature = new HashMap<>();
+    private final BitSet available;
+    // Positions of rooms with a known capacity, sorted by capacity, and their capacities in the same order
+    private final int[] byCapacity;
+    private final int[] capacities;
+
+    RoomFeatureIndex(Collection<CatalogRoom> roomsInIdOrder) {
+        this.rooms = roomsInIdOrder.toArray(CatalogRoom[]::new);
+        this.available = new BitSet(rooms.length);
+        for (int i = 0; i < rooms.length; i++) {
+            for (String feature : rooms[i].features()) {
+                byFeature.computeIfAbsent(normalize(feature), f -> new BitSet(rooms.length)).set(i);
+            }
+            if (Boolean.TRUE.equals(rooms[i].availability())) {
+                available.set(i);
+            }
+        }
+        this.byCapacity = IntStream.range(0, rooms.length)
+                .filter(i -> rooms[i].capacity() != null)
+                .boxed()
+                .sorted(Comparator.comparingInt(i -> rooms[i].capacity()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.capacities = Arrays.stream(byCapacity).map(i -> rooms[i].capacity()).toArray();
+    }
+
+    // Rooms having every feature (case-insensitive), within the capacity range, and with the given availability; null means any
+    List<CatalogRoom> search(Collection<String> features, Integer minCapacity, Integer maxCapacity, Boolean availability) {
+        BitSet matches = new BitSet(rooms.length);
+        matches.set(0, rooms.length);
+        if (features != null) {
+            for (String feature : features) {
+                BitSet withFeature = byFeature.get(normalize(feature));
+                if (withFeature == null) {
+                    return List.of();
+                }
+                matches.and(withFeature);
+            }
+        }
+        if (availability != null) {
+            if (availability) {
+                matches.and(available);
+            } else {
+                matches.andNot(available);
+            }
+        }
+        if (minCapacity != null || maxCapacity != null) {
+            matches.and(capacityRange(minCapacity, maxCapacity));
+        }
+
+        List<CatalogRoom> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(rooms[i]);
+        }
+        return result;
+    }
+
+    private BitSet capacityRange(Integer minCapacity, Integer maxCapacity) {
+        int from = minCapacity == null ? 0 : firstAtLeast(minCapacity);
+        int to = maxCapacity == null || maxCapacity == Integer.MAX_VALUE ? capacities.length : firstAtLeast(maxCapacity + 1);
+        BitSet range = new BitSet(rooms.length);
+        for (int i = from; i < to; i++) {
+            range.set(byCapacity[i]);
+        }
+        return range;
+    }
+
+    // Index of the first capacity >= value, or capacities.length if there is none
+    private int firstAtLeast(int value) {
+        int low = 0;
+        int high = capacities.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (capacities[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static String normalize(String feature) {
+        return feature.toLowerCase(Locale.ROOT);
+    }
+}
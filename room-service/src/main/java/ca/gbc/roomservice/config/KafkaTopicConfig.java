@@ -0,0 +1,20 @@
+package ca.gbc.roomservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Compacted, so a consumer reading from the beginning sees the latest state of every room
+    @Bean
+    public NewTopic roomCatalogTopic(@Value("${room.catalog.topic:room-catalog}") String topic) {
+        return TopicBuilder.name(topic)
+                .partitions(1)
+                .compact()
+                .build();
+    }
+}
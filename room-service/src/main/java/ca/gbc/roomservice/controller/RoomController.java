@@ -1,9 +1,12 @@
 package ca.gbc.roomservice.controller;
+import ca.gbc.roomservice.dto.PageResponse;
 import ca.gbc.roomservice.dto.RoomRequest;
 import ca.gbc.roomservice.dto.RoomResponse;
+import ca.gbc.roomservice.dto.RoomSummary;
 import ca.gbc.roomservice.model.Room;
 import ca.gbc.roomservice.service.RoomService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -20,6 +23,12 @@ import java.util.Optional;
 public class RoomController {
     private final RoomService roomService;
 
+    @Value("${room.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${room.page.max-size:1000}")
+    private int maxPageSize;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<RoomResponse> createRoom(@RequestBody RoomRequest roomRequest) {
@@ -58,6 +67,26 @@ public class RoomController {
         return roomService.getAllRooms();
     }
 
+    // Retrieve rooms one page at a time, in id order; pass the returned nextCursor as "after" for the next page
+    @GetMapping("/page")
+    public PageResponse<RoomResponse> getRoomsPage(@RequestParam(required = false) Integer after,
+                                                   @RequestParam(required = false) Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        return roomService.getRoomsPage(after, pageSize);
+    }
+
+    // Rooms having all the given features, within the capacity range and, if given, with that availability
+    @GetMapping("/search")
+    public ResponseEntity<List<RoomResponse>> searchRooms(@RequestParam(required = false) List<String> features,
+                                                          @RequestParam(required = false) Integer minCapacity,
+                                                          @RequestParam(required = false) Integer maxCapacity,
+                                                          @RequestParam(required = false) Boolean availability) {
+        if (minCapacity != null && maxCapacity != null && minCapacity > maxCapacity) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(roomService.searchRooms(features, minCapacity, maxCapacity, availability));
+    }
+
 
     @DeleteMapping("/{roomId}")
     public ResponseEntity<?> deleteRoom(@PathVariable("roomId") Integer roomId) {
@@ -71,6 +100,13 @@ public class RoomController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @GetMapping("/{roomId}")
+    public ResponseEntity<RoomResponse> getRoomById(@PathVariable("roomId") Integer roomId) {
+        return roomService.getRoomById(roomId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{roomId}/availability")
     public boolean getRoomAvailability(@PathVariable("roomId") Integer roomId) {
         return roomService.getRoomAvailability(roomId);
@@ -88,4 +124,20 @@ public class RoomController {
         return exists ? ResponseEntity.ok(true) : ResponseEntity.status(HttpStatus.NOT_FOUND).body(false);
     }
 
+    // Existence, availability and capacity in one lookup; unknown rooms come back with exists=false
+    @GetMapping("/{roomId}/summary")
+    public RoomSummary getRoomSummary(@PathVariable("roomId") Integer roomId) {
+        return roomService.getRoomSummary(roomId);
+    }
+
+    @PostMapping("/summaries")
+    public List<RoomSummary> getRoomSummaries(@RequestBody List<Integer> roomIds) {
+        return roomService.getRoomSummaries(roomIds);
+    }
+
+    @GetMapping("/summaries")
+    public List<RoomSummary> getAllRoomSummaries() {
+        return roomService.getAllRoomSummaries();
+    }
+
 }
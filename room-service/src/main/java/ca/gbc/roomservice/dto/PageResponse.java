@@ -0,0 +1,14 @@
+package ca.gbc.roomservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageResponse<T> {
+    private List<T> items;
+    private Integer nextCursor;   // Pass as "after" to fetch the next page, null on the last page
+}
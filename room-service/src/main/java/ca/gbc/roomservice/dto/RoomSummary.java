@@ -0,0 +1,19 @@
+package ca.gbc.roomservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RoomSummary {
+    private Integer id;
+    private boolean exists;
+    private Boolean availability;
+    private Integer capacity;
+
+    public static RoomSummary missing(Integer id) {
+        return new RoomSummary(id, false, false, null);
+    }
+}
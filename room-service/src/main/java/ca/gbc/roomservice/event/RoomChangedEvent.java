@@ -0,0 +1,19 @@
+package ca.gbc.roomservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Current state of one room, keyed by room id on the compacted room-catalog topic; a deleted room is a tombstone
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomChangedEvent {
+    private Integer roomId;
+    private String name;
+    private Integer capacity;
+    private Boolean availability;
+    private List<String> features;
+}
@@ -2,7 +2,37 @@ package ca.gbc.roomservice.repository;
 
 import ca.gbc.roomservice.model.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface RoomRepository extends JpaRepository<Room, Integer> {
 
+    // Loads rooms and their features in one query, for rebuilding the room catalog
+    @Query("select distinct r from Room r left join fetch r.features")
+    List<Room> findAllWithFeatures();
+
+    // Backs the database search mode; a null bound or availability matches any room
+    @Query("""
+            select distinct r from Room r left join fetch r.features
+            where (:minCapacity is null or r.capacity >= :minCapacity)
+              and (:maxCapacity is null or r.capacity <= :maxCapacity)
+              and (:availability is null or r.availability = :availability)
+            order by r.id""")
+    List<Room> search(Integer minCapacity, Integer maxCapacity, Boolean availability);
+
+    // As search(), limited to rooms having every one of the given lower-cased features
+    @Query("""
+            select distinct r from Room r left join fetch r.features
+            where (:minCapacity is null or r.capacity >= :minCapacity)
+              and (:maxCapacity is null or r.capacity <= :maxCapacity)
+              and (:availability is null or r.availability = :availability)
+              and r.id in (select rf.id from Room rf join rf.features f
+                           where lower(f) in :features
+                           group by rf.id
+                           having count(distinct lower(f)) = :featureCount)
+            order by r.id""")
+    List<Room> searchWithFeatures(Collection<String> features, long featureCount,
+                                  Integer minCapacity, Integer maxCapacity, Boolean availability);
 }
@@ -1,7 +1,9 @@
 package ca.gbc.roomservice.service;
 
+import ca.gbc.roomservice.dto.PageResponse;
 import ca.gbc.roomservice.dto.RoomRequest;
 import ca.gbc.roomservice.dto.RoomResponse;
+import ca.gbc.roomservice.dto.RoomSummary;
 import ca.gbc.roomservice.model.Room;
 
 import java.util.List;
@@ -10,9 +12,15 @@ import java.util.Optional;
 public interface RoomService {
     RoomResponse createRoom(RoomRequest roomRequest);
     List<RoomResponse> getAllRooms();
+    Optional<RoomResponse> getRoomById(int id);
+    PageResponse<RoomResponse> getRoomsPage(Integer after, int size);
+    List<RoomResponse> searchRooms(List<String> features, Integer minCapacity, Integer maxCapacity, Boolean availability);
     String updateRoom(int id, RoomRequest roomRequest);
     void deleteRoom(int id);
     boolean getRoomAvailability(int id);
     Integer getCapacity(int id);
     boolean roomExists(int id);
+    RoomSummary getRoomSummary(int id);
+    List<RoomSummary> getRoomSummaries(List<Integer> ids);
+    List<RoomSummary> getAllRoomSummaries();
 }
@@ -1,15 +1,21 @@
 package ca.gbc.roomservice.service;
 
 
+import ca.gbc.roomservice.catalog.CatalogRoom;
+import ca.gbc.roomservice.catalog.RoomCatalog;
+import ca.gbc.roomservice.dto.PageResponse;
 import ca.gbc.roomservice.dto.RoomRequest;
 import ca.gbc.roomservice.dto.RoomResponse;
+import ca.gbc.roomservice.dto.RoomSummary;
 import ca.gbc.roomservice.model.Room;
 import ca.gbc.roomservice.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
@@ -17,6 +23,12 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class RoomServiceImpl implements RoomService {
     private final RoomRepository roomRepository;
+    // Every read is answered from the catalog snapshot; writes go to Postgres and then rebuild it
+    private final RoomCatalog roomCatalog;
+
+    // "catalog" answers searches from the catalog's bitmap index, "database" runs them against Postgres
+    @Value("${room.search.source:catalog}")
+    private String searchSource;
 
     @Override
     public RoomResponse createRoom(RoomRequest roomRequest) {
@@ -27,6 +39,7 @@ public class RoomServiceImpl implements RoomService {
                 .availability(roomRequest.getAvailability())
                 .build();
         Room savedRoom = roomRepository.save(room);
+        roomCatalog.reload();
         log.info("Room Saved: {}", roomRequest.getName());
 
         return RoomResponse.builder()
@@ -41,13 +54,45 @@ public class RoomServiceImpl implements RoomService {
     @Override
     public List<RoomResponse> getAllRooms() {
         log.info("Fetching all rooms");
-        List<Room> rooms = roomRepository.findAll();
-        return rooms.stream().map(this::mapToRoomResponse).toList();
+        return roomCatalog.all().stream().map(CatalogRoom::toResponse).toList();
+    }
+
+    @Override
+    public Optional<RoomResponse> getRoomById(int id) {
+        return roomCatalog.find(id).map(CatalogRoom::toResponse);
+    }
+
+    @Override
+    public PageResponse<RoomResponse> getRoomsPage(Integer after, int size) {
+        // One extra room tells whether another page follows
+        List<CatalogRoom> rooms = roomCatalog.page(after == null ? Integer.MIN_VALUE : after, size + 1);
+        List<RoomResponse> items = rooms.stream().limit(size).map(CatalogRoom::toResponse).toList();
+        Integer nextCursor = rooms.size() > size ? items.get(items.size() - 1).id() : null;
+        return new PageResponse<>(items, nextCursor);
     }
 
-    private RoomResponse mapToRoomResponse(Room room) {
-        return new RoomResponse(room.getId(), room.getName(),
-                room.getCapacity(), room.getFeatures(), room.getAvailability());
+    @Override
+    public List<RoomResponse> searchRooms(List<String> features, Integer minCapacity, Integer maxCapacity, Boolean availability) {
+        List<String> wanted = features == null ? List.of() : features.stream()
+                .map(String::trim)
+                .filter(feature -> !feature.isEmpty())
+                .map(feature -> feature.toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        log.debug("Searching rooms in {}: features {}, capacity {}-{}, availability {}", searchSource, wanted, minCapacity, maxCapacity, availability);
+
+        if ("database".equalsIgnoreCase(searchSource)) {
+            List<Room> rooms = wanted.isEmpty()
+                    ? roomRepository.search(minCapacity, maxCapacity, availability)
+                    : roomRepository.searchWithFeatures(wanted, wanted.size(), minCapacity, maxCapacity, availability);
+            return rooms.stream()
+                    .map(room -> new RoomResponse(room.getId(), room.getName(), room.getCapacity(),
+                            room.getFeatures(), room.getAvailability()))
+                    .toList();
+        }
+        return roomCatalog.search(wanted, minCapacity, maxCapacity, availability).stream()
+                .map(CatalogRoom::toResponse)
+                .toList();
     }
 
     @Override
@@ -60,6 +105,7 @@ public class RoomServiceImpl implements RoomService {
             room.setFeatures(roomRequest.getFeatures());
             room.setAvailability(roomRequest.getAvailability());
             roomRepository.save(room);
+            roomCatalog.reload();
             log.info("Room with ID {} updated successfully", id);
             return "Room Updated Successfully";
         } else {
@@ -72,34 +118,52 @@ public class RoomServiceImpl implements RoomService {
     public void deleteRoom(int id) {
         log.info("Deleting room with ID: {}", id);
         roomRepository.deleteById(id);
+        roomCatalog.reload();
     }
 
     @Override
     public boolean getRoomAvailability(int id) {
-        Room room = roomRepository.findById(id).orElse(null);
+        CatalogRoom room = roomCatalog.find(id).orElse(null);
         if (room == null) {
             log.info("Room with ID {} not found; returning availability as false", id);
             return false; // Room not found, so we return false for availability
         }
-        log.info("Room with ID {} found; availability: {}", id, room.getAvailability());
-        return room.getAvailability(); // Return the actual availability status
+        log.info("Room with ID {} found; availability: {}", id, room.availability());
+        return room.availability(); // Return the actual availability status
     }
 
     @Override
     public Integer getCapacity(int id) {
-        Room room = roomRepository.findById(id).orElse(null);
+        CatalogRoom room = roomCatalog.find(id).orElse(null);
         if (room == null) {
             log.info("Room with ID {} not found; returning capacity as false", id);
             return null;
         }
-        log.info("Room with ID {} found; Capacity: {}", id, room.getCapacity());
-        return room.getCapacity();
+        log.info("Room with ID {} found; Capacity: {}", id, room.capacity());
+        return room.capacity();
     }
 
     @Override
     public boolean roomExists(int id) {
-        return roomRepository.existsById(id);
+        return roomCatalog.find(id).isPresent();
+    }
+
+    @Override
+    public RoomSummary getRoomSummary(int id) {
+        return roomCatalog.find(id).map(CatalogRoom::toSummary).orElseGet(() -> RoomSummary.missing(id));
     }
 
+    @Override
+    public List<RoomSummary> getRoomSummaries(List<Integer> ids) {
+        // One entry per requested id, in request order, so callers can zip the result with their input
+        return ids.stream()
+                .map(id -> roomCatalog.find(id).map(CatalogRoom::toSummary).orElseGet(() -> RoomSummary.missing(id)))
+                .toList();
+    }
+
+    @Override
+    public List<RoomSummary> getAllRoomSummaries() {
+        return roomCatalog.all().stream().map(CatalogRoom::toSummary).toList();
+    }
 
 }
@@ -0,0 +1,4 @@
+-- V3__add_room_search_indexes.sql
+-- Feature lookups are case-insensitive; room_id is included so the search can be answered from the index
+CREATE INDEX idx_room_features_feature ON room_features (lower(feature), room_id);
+CREATE INDEX idx_rooms_capacity ON rooms (capacity);
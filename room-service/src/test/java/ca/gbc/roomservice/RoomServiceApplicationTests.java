@@ -1,24 +1,58 @@
 package ca.gbc.roomservice;
 
+import ca.gbc.roomservice.catalog.RoomCatalog;
+import ca.gbc.roomservice.catalog.RoomCatalogPublisher;
+import ca.gbc.roomservice.event.RoomChangedEvent;
+import ca.gbc.roomservice.model.Room;
 import ca.gbc.roomservice.repository.RoomRepository;
 import io.restassured.RestAssured;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Testcontainers
+@EmbeddedKafka(partitions = 1, topics = "room-catalog", bootstrapServersProperty = "spring.kafka.bootstrap-servers")
 class RoomServiceApplicationTests {
 	@ServiceConnection
 	static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
@@ -32,6 +66,15 @@ class RoomServiceApplicationTests {
 	@Autowired
 	private RoomRepository roomRepository;
 
+	@Autowired
+	private RoomCatalog roomCatalog;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
 	@DynamicPropertySource
 	static void registerPostgresProperties(DynamicPropertyRegistry registry) {
 		postgreSQLContainer.start();
@@ -45,6 +88,7 @@ class RoomServiceApplicationTests {
 		RestAssured.baseURI = "http://localhost";
 		RestAssured.port = port;
 		roomRepository.deleteAll();  // Clear the database before each test
+		roomCatalog.reload();
 	}
 
 	@Test
@@ -229,6 +273,26 @@ class RoomServiceApplicationTests {
 				.body(equalTo("35"));
 	}
 
+	@Test
+	void getRoomByIdTest() {
+		int roomId = createRoom("Room G", 45, true, "Projector");
+
+		given()
+				.when()
+				.get("/api/room/" + roomId)
+				.then()
+				.statusCode(200)
+				.body("id", equalTo(roomId))
+				.body("name", equalTo("Room G"))
+				.body("capacity", equalTo(45));
+
+		given()
+				.when()
+				.get("/api/room/" + (roomId + 1000))
+				.then()
+				.statusCode(404);
+	}
+
 	@Test
 	void checkRoomExistsTest() {
 		String requestBody = """
@@ -258,5 +322,255 @@ class RoomServiceApplicationTests {
 				.body(equalTo("true"));
 	}
 
+	@Test
+	void getRoomSummariesTest() {
+		String requestBody = """
+            {
+                "name": "Room H",
+                "capacity": 30,
+                "availability": false,
+                "features": ["Projector"]
+            }
+        """;
 
-}
\ No newline at end of file
+		int roomId = given()
+				.contentType("application/json")
+				.body(requestBody)
+				.when()
+				.post("/api/room")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id");
+
+		given()
+				.when()
+				.get("/api/room/" + roomId + "/summary")
+				.then()
+				.statusCode(200)
+				.body("id", equalTo(roomId))
+				.body("exists", equalTo(true))
+				.body("availability", equalTo(false))
+				.body("capacity", equalTo(30));
+
+		given()
+				.contentType("application/json")
+				.body(List.of(-1, roomId))
+				.when()
+				.post("/api/room/summaries")
+				.then()
+				.statusCode(200)
+				.body("size()", equalTo(2))
+				.body("[0].exists", equalTo(false))
+				.body("[1].id", equalTo(roomId))
+				.body("[1].capacity", equalTo(30));
+
+		given()
+				.when()
+				.get("/api/room/summaries")
+				.then()
+				.statusCode(200)
+				.body("id", Matchers.hasItem(roomId))
+				.body("exists", Matchers.everyItem(equalTo(true)));
+	}
+
+	@Test
+	void updateRoom_RefreshesCatalogAndPublishesChange() {
+		String createRoomRequest = """
+            {
+              "name": "Room J",
+              "capacity": 20,
+              "features": ["Projector"],
+              "availability": true
+            }
+            """;
+
+		int roomId = given()
+				.contentType("application/json")
+				.body(createRoomRequest)
+				.when()
+				.post("/api/room")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id");
+
+		String updateRoomRequest = """
+            {
+              "name": "Room J",
+              "capacity": 60,
+              "features": ["Projector"],
+              "availability": false
+            }
+            """;
+
+		given()
+				.contentType("application/json")
+				.body(updateRoomRequest)
+				.when()
+				.put("/api/room/" + roomId)
+				.then()
+				.statusCode(200);
+
+		// Reads come from the snapshot, which the update rebuilt
+		given()
+				.when()
+				.get("/api/room/" + roomId + "/capacity")
+				.then()
+				.statusCode(200)
+				.body(equalTo("60"));
+
+		Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("room-catalog-test", "false", embeddedKafkaBroker);
+		consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+		try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(consumerProps,
+				new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+			embeddedKafkaBroker.consumeFromAnEmbeddedTopic(consumer, "room-catalog");
+			List<ConsumerRecord<String, String>> published = new ArrayList<>();
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (System.currentTimeMillis() < deadline && published.stream().noneMatch(r -> r.value() != null && r.value().contains("\"capacity\":60"))) {
+				KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(1)).records("room-catalog").forEach(published::add);
+			}
+			assertTrue(published.stream().anyMatch(r -> String.valueOf(roomId).equals(r.key())
+					&& r.value() != null && r.value().contains("\"capacity\":60")));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void catalogPublisher_KeepsFailedSendsForTheNextReload() throws InterruptedException {
+		KafkaTemplate<String, RoomChangedEvent> kafkaTemplate = mock(KafkaTemplate.class);
+		when(kafkaTemplate.send(anyString(), anyString(), any()))
+				.thenReturn(CompletableFuture.failedFuture(new KafkaException("broker unavailable")));
+		RoomCatalogPublisher publisher = new RoomCatalogPublisher(kafkaTemplate, "room-catalog");
+		try {
+			publisher.publish(List.of(), List.of(901, 902));
+
+			Set<Integer> unsent = new HashSet<>();
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (System.currentTimeMillis() < deadline && unsent.size() < 2) {
+				Thread.sleep(50);
+				unsent.addAll(publisher.takeUnsent());
+			}
+			assertEquals(Set.of(901, 902), unsent);
+			// Handed out once; the reload that took them resends their current state
+			assertTrue(publisher.takeUnsent().isEmpty());
+		} finally {
+			publisher.shutdown();
+		}
+	}
+
+	@Test
+	void roomListing_RunsConstantNumberOfStatements() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		for (int rooms : new int[] {5, 60}) {
+			roomRepository.deleteAll();
+			roomRepository.saveAll(IntStream.range(0, rooms)
+					.mapToObj(i -> Room.builder()
+							.name("Room " + i)
+							.capacity(10 + i)
+							.features(List.of("Projector", "Whiteboard", "Speaker"))
+							.availability(true)
+							.build())
+					.toList());
+
+			// Rooms and their features come back in one statement, not one per room
+			statistics.clear();
+			roomCatalog.reload();
+			assertEquals(1, statistics.getPrepareStatementCount(), "statements to load " + rooms + " rooms");
+
+			// Listing and paging are answered from the catalog without touching Postgres
+			statistics.clear();
+			given()
+					.when()
+					.get("/api/room")
+					.then()
+					.statusCode(200)
+					.body("size()", equalTo(rooms))
+					.body("[0].features", Matchers.containsInAnyOrder("Projector", "Whiteboard", "Speaker"));
+			Integer nextCursor = given()
+					.queryParam("size", 4)
+					.when()
+					.get("/api/room/page")
+					.then()
+					.statusCode(200)
+					.body("items.size()", equalTo(4))
+					.extract()
+					.path("nextCursor");
+			// The last page is exactly full and still ends the walk
+			given()
+					.queryParam("after", nextCursor)
+					.queryParam("size", rooms - 4)
+					.when()
+					.get("/api/room/page")
+					.then()
+					.statusCode(200)
+					.body("items.size()", equalTo(rooms - 4))
+					.body("nextCursor", Matchers.nullValue());
+			assertEquals(0, statistics.getPrepareStatementCount(), "statements to list " + rooms + " rooms");
+		}
+	}
+
+	@Test
+	void searchRooms_FiltersByFeaturesCapacityAndAvailability() {
+		int large = createRoom("Hall 1", 120, true, "Projector", "Whiteboard");
+		int medium = createRoom("Room 2", 80, true, "projector");
+		createRoom("Room 3", 60, true, "Projector", "Whiteboard");
+		int closed = createRoom("Hall 4", 150, false, "Projector");
+
+		given()
+				.queryParam("features", "Projector")
+				.queryParam("minCapacity", 80)
+				.when()
+				.get("/api/room/search")
+				.then()
+				.statusCode(200)
+				.body("id", Matchers.contains(large, medium, closed));
+
+		given()
+				.queryParam("features", "projector", "WHITEBOARD")
+				.queryParam("minCapacity", 80)
+				.queryParam("availability", true)
+				.when()
+				.get("/api/room/search")
+				.then()
+				.statusCode(200)
+				.body("id", Matchers.contains(large));
+
+		given()
+				.queryParam("maxCapacity", 100)
+				.queryParam("features", "Speaker")
+				.when()
+				.get("/api/room/search")
+				.then()
+				.statusCode(200)
+				.body("size()", equalTo(0));
+
+		given()
+				.queryParam("minCapacity", 100)
+				.queryParam("maxCapacity", 50)
+				.when()
+				.get("/api/room/search")
+				.then()
+				.statusCode(400);
+
+		// The database mode gives the same answers as the bitmap index
+		assertEquals(List.of(large, medium, closed), roomRepository.searchWithFeatures(List.of("projector"), 1, 80, null, null)
+				.stream().map(Room::getId).toList());
+		assertEquals(List.of(large), roomRepository.searchWithFeatures(List.of("projector", "whiteboard"), 2, 80, null, true)
+				.stream().map(Room::getId).toList());
+		assertEquals(List.of(closed), roomRepository.search(null, null, false).stream().map(Room::getId).toList());
+	}
+
+	private int createRoom(String name, int capacity, boolean availability, String... features) {
+		return given()
+				.contentType("application/json")
+				.body(Map.of("name", name, "capacity", capacity, "availability", availability, "features", List.of(features)))
+				.when()
+				.post("/api/room")
+				.then()
+				.statusCode(201)
+				.extract()
+				.path("id");
+	}
+}
@@ -1,3 +1,3 @@
 rootProject.name = "GBC_EventBooking-32"
-include("room-service", "booking-service", "user-service", "event-service", "approval-service", "api-gateway")
+include("room-service", "booking-service", "user-service", "event-service", "approval-service", "api-gateway", "benchmarks", "load-tests")
 
@@ -2,8 +2,10 @@ package ca.gbc.userservice.controller;
 
 import ca.gbc.userservice.dto.UserRequest;
 import ca.gbc.userservice.dto.UserResponse;
+import ca.gbc.userservice.dto.UserSummary;
 import ca.gbc.userservice.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +20,9 @@ public class UserController {
 
     private final UserService userService;
 
+    @Value("${user.batch.max-size:1000}")
+    private int maxBatchSize;
+
     // Get all users
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
@@ -52,6 +57,15 @@ public class UserController {
         return ResponseEntity.ok(userType);
     }
 
+    // Role and type of many users in one call; one entry per id, in request order, unknown users have exists=false
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserSummary>> getUserSummaries(@RequestBody List<Integer> userIds) {
+        if (userIds.size() > maxBatchSize || userIds.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.getUserSummaries(userIds));
+    }
+
     // Create a new user
     @PostMapping
     public ResponseEntity<?> createUser(@RequestBody UserRequest userRequest) {
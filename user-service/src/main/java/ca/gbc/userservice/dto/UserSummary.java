@@ -0,0 +1,21 @@
+package ca.gbc.userservice.dto;
+
+import ca.gbc.userservice.model.User.Role;
+import ca.gbc.userservice.model.User.UserType;
+
+public record UserSummary(
+        Integer id,
+        boolean exists,
+        Role role,
+        UserType userType
+) {
+
+    // Used by the repository projection, which only ever returns users that exist
+    public UserSummary(Integer id, Role role, UserType userType) {
+        this(id, true, role, userType);
+    }
+
+    public static UserSummary missing(Integer id) {
+        return new UserSummary(id, false, null, null);
+    }
+}
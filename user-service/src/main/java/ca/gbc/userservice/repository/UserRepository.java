@@ -1,8 +1,24 @@
 package ca.gbc.userservice.repository;
 
+import ca.gbc.userservice.dto.UserSummary;
 import ca.gbc.userservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
 
+    // Single-column lookups: no entity is loaded, managed or dirty-checked
+    @Query("select u.userType from User u where u.id = :id")
+    Optional<User.UserType> findUserTypeById(Integer id);
+
+    @Query("select u.role from User u where u.id = :id")
+    Optional<User.Role> findRoleById(Integer id);
+
+    // Role and type of many users in one statement, without loading the entities
+    @Query("select new ca.gbc.userservice.dto.UserSummary(u.id, u.role, u.userType) from User u where u.id in :ids")
+    List<UserSummary> findSummariesByIdIn(Collection<Integer> ids);
 }
@@ -2,6 +2,7 @@ package ca.gbc.userservice.service;
 
 import ca.gbc.userservice.dto.UserRequest;
 import ca.gbc.userservice.dto.UserResponse;
+import ca.gbc.userservice.dto.UserSummary;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,5 +16,6 @@ public interface UserService {
     boolean userExists(Integer userId);
     String getUserType(Integer userId);
     String getUserRole(Integer userId);
+    List<UserSummary> getUserSummaries(List<Integer> userIds);
 
 }
@@ -1,14 +1,18 @@
 package ca.gbc.userservice.service;
 import ca.gbc.userservice.dto.UserRequest;
 import ca.gbc.userservice.dto.UserResponse;
+import ca.gbc.userservice.dto.UserSummary;
 import ca.gbc.userservice.model.User;
 import ca.gbc.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -97,10 +101,11 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public String getUserType(Integer userId) {
-        Optional<User> user = userRepository.findById(userId);
-        if (user.isPresent()) {
-            return user.get().getUserType().name(); // Return the userType as a String
+        Optional<User.UserType> userType = userRepository.findUserTypeById(userId);
+        if (userType.isPresent()) {
+            return userType.get().name(); // Return the userType as a String
         } else {
             log.warn("User with ID {} not found", userId);
             return "UNKNOWN"; // Return "UNKNOWN" if the user doesn't exist
@@ -108,13 +113,25 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public String getUserRole(Integer userId) {
-        Optional<User> user = userRepository.findById(userId);
-        if (user.isPresent()) {
-            return user.get().getRole().name(); // Return the userType as a String
+        Optional<User.Role> role = userRepository.findRoleById(userId);
+        if (role.isPresent()) {
+            return role.get().name(); // Return the role as a String
         } else {
             log.warn("User with ID {} not found", userId);
             return "UNKNOWN";
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummary> getUserSummaries(List<Integer> userIds) {
+        Map<Integer, UserSummary> found = userRepository.findSummariesByIdIn(userIds).stream()
+                .collect(Collectors.toMap(UserSummary::id, Function.identity()));
+        // One entry per requested id, in request order, so callers can zip the result with their input
+        return userIds.stream()
+                .map(id -> found.getOrDefault(id, UserSummary.missing(id)))
+                .toList();
+    }
 }
@@ -13,6 +13,9 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import io.restassured.RestAssured;
 
+import java.util.List;
+import java.util.Map;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class UserServiceIntegrationTests {
 
@@ -205,4 +208,75 @@ class UserServiceIntegrationTests {
                 .log().ifError()
                 .statusCode(404); // 404 Not Found, indicating the user was deleted
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserSummariesBatchTest() {
+        int staffId = RestAssured.given()
+                .contentType("application/json")
+                .body(Map.of("name", "Jane Staff", "email", "jane@example.com", "role", "ADMIN", "userType", "STAFF"))
+                .when()
+                .post("/api/users")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+        int studentId = RestAssured.given()
+                .contentType("application/json")
+                .body(Map.of("name", "Sam Student", "email", "sam@example.com", "role", "USER", "userType", "STUDENT"))
+                .when()
+                .post("/api/users")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+
+        RestAssured.given()
+                .contentType("application/json")
+                .body(List.of(studentId, -1, staffId))
+                .when()
+                .post("/api/users/batch")
+                .then()
+                .log().ifError()
+                .statusCode(200)
+                .body("size()", Matchers.equalTo(3))
+                .body("id", Matchers.contains(studentId, -1, staffId))
+                .body("exists", Matchers.contains(true, false, true))
+                .body("[0].role", Matchers.equalTo("USER"))
+                .body("[0].userType", Matchers.equalTo("STUDENT"))
+                .body("[2].role", Matchers.equalTo("ADMIN"))
+                .body("[2].userType", Matchers.equalTo("STAFF"));
+    }
+
+    @Test
+    void getUserTypeAndRoleTest() {
+        int userId = RestAssured.given()
+                .contentType("application/json")
+                .body(Map.of("name", "Fay Faculty", "email", "fay@example.com", "role", "SUPERADMIN", "userType", "FACULTY"))
+                .when()
+                .post("/api/users")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id");
+
+        RestAssured.given()
+                .when()
+                .get("/api/users/" + userId + "/type")
+                .then()
+                .statusCode(200)
+                .body(Matchers.equalTo("FACULTY"));
+
+        RestAssured.given()
+                .when()
+                .get("/api/users/" + userId + "/role")
+                .then()
+                .statusCode(200)
+                .body(Matchers.equalTo("SUPERADMIN"));
+
+        RestAssured.given()
+                .when()
+                .get("/api/users/-1/type")
+                .then()
+                .statusCode(404);
+    }
+}